@@ -0,0 +1,113 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * Player Store Benchmark - Compares the binary player log with the old
+ * whole-map ObjectOutputStream snapshot
+ * Kept out of src so it is not shipped with the game; build it with the app:
+ *   javac -d out src/*.java bench/*.java
+ * Run with: java -cp out PlayerStoreBenchmark [playerCount]  (default 100000)
+ * Files are written to a temporary directory and deleted afterwards
+ */
+public class PlayerStoreBenchmark {
+    private static final int UPDATES = 200;
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int playerCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        File directory = java.nio.file.Files.createTempDirectory("rps-players").toFile();
+        File snapshotFile = new File(directory, "players.dat");
+        RecordLog log = new RecordLog(new File(directory, "players.log"));
+
+        Map<String, PlayerProfile> players = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < playerCount; i++) {
+            PlayerProfile player = new PlayerProfile("Player " + i);
+            player.gamesPlayed = random.nextInt(500);
+            player.gamesWon = random.nextInt(player.gamesPlayed + 1);
+            player.roundsPlayed = player.gamesPlayed * 3;
+            player.pvcGames = player.gamesPlayed / 2;
+            player.pvcWins = player.gamesWon / 2;
+            player.pvpGames = player.gamesPlayed - player.pvcGames;
+            player.pvpWins = player.gamesWon - player.pvcWins;
+            players.put(player.name, player);
+        }
+        List<PlayerProfile> updated = new ArrayList<>(players.values()).subList(0, UPDATES);
+
+        System.out.println("Players: " + playerCount + ", best of " + RUNS + " runs");
+        try {
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                writeSnapshot(snapshotFile, players);
+                long snapshotWrite = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int snapshotRead = readSnapshot(snapshotFile).size();
+                long snapshotLoad = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<byte[]> records = new ArrayList<>(players.size());
+                for (PlayerProfile player : players.values()) {
+                    records.add(player.toBytes());
+                }
+                log.rewrite(records);
+                long logWrite = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                Map<String, PlayerProfile> loaded = new HashMap<>();
+                log.replay(payload -> {
+                    try {
+                        PlayerProfile player = PlayerProfile.fromBytes(payload);
+                        loaded.put(player.name, player);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                long logLoad = System.nanoTime() - start;
+
+                // Per-game cost: the old path rewrote the whole map on every update
+                start = System.nanoTime();
+                for (int i = 0; i < UPDATES / 20; i++) {
+                    writeSnapshot(snapshotFile, players);
+                }
+                long snapshotUpdate = (System.nanoTime() - start) / (UPDATES / 20);
+
+                start = System.nanoTime();
+                for (PlayerProfile player : updated) {
+                    player.gamesPlayed++;
+                    log.append(player.toBytes());
+                }
+                long logUpdate = (System.nanoTime() - start) / UPDATES;
+
+                System.out.printf("Run %d:%n", run + 1);
+                System.out.printf("  Full write   ObjectOutputStream %8.1f ms | binary log %8.1f ms%n",
+                    snapshotWrite / 1e6, logWrite / 1e6);
+                System.out.printf("  Full load    ObjectInputStream  %8.1f ms | binary log %8.1f ms (%d / %d players)%n",
+                    snapshotLoad / 1e6, logLoad / 1e6, snapshotRead, loaded.size());
+                System.out.printf("  Per update   whole-map rewrite  %8.2f ms | one record %8.3f ms%n",
+                    snapshotUpdate / 1e6, logUpdate / 1e6);
+                System.out.printf("  File size    %d bytes | %d bytes%n",
+                    snapshotFile.length(), log.getFile().length());
+            }
+        } finally {
+            snapshotFile.delete();
+            log.getFile().delete();
+            directory.delete();
+        }
+    }
+
+    private static void writeSnapshot(File file, Map<String, PlayerProfile> players) throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 64 * 1024))) {
+            oos.writeObject(players);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, PlayerProfile> readSnapshot(File file) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            return (Map<String, PlayerProfile>) ois.readObject();
+        }
+    }
+}
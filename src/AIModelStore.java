@@ -0,0 +1,152 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * AI Model Store - Keeps what the computer learned about each player between games
+ * Every player has a small binary model file. Models are read on a background
+ * thread when a game starts and written back on the same thread after it ends,
+ * so neither step blocks the game screen. The session cache holds each
+ * model as its saved bytes and every game gets its own copy, so learning from
+ * a game that was never saved cannot leak into the next one
+ */
+class AIModelStore {
+    private static final int MODEL_MAGIC = 0x5250534D; // "RPSM"
+    private static final int MODEL_VERSION = 1;
+    private static final int MAX_HEX_NAME_BYTES = 100; // Longer names are hashed to stay under the 255-byte file name limit
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private static final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ai-model-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final byte[] NO_MODEL = new byte[0];
+
+    // Encoded models already read or saved this session, so repeat games skip the disk
+    private static final Map<String, byte[]> models = new ConcurrentHashMap<>();
+
+    static {
+        // Let queued saves finish before the JVM exits (the io thread is a daemon)
+        Runtime.getRuntime().addShutdownHook(new Thread(AIModelStore::shutdown, "ai-model-flush-on-exit"));
+    }
+
+    /**
+     * Start loading a player's model; unknown players get a fresh one
+     * Every call returns a separate strategy the game may change freely
+     */
+    public static Future<AIStrategy> load(String playerName) {
+        byte[] cached = models.get(playerName);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(decode(playerName, cached));
+        }
+        return CompletableFuture.supplyAsync(
+            () -> decode(playerName, models.computeIfAbsent(playerName, AIModelStore::read)), io);
+    }
+
+    /**
+     * Save a player's model in the background
+     * The state is captured right away, so the game may keep using the strategy
+     */
+    public static void saveAsync(String playerName, AIStrategy strategy) {
+        byte[] data;
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(MODEL_MAGIC);
+            out.writeByte(MODEL_VERSION);
+            strategy.writeTo(out);
+            data = buffer.toByteArray();
+        } catch (IOException e) {
+            System.err.println("Error encoding AI model: " + e.getMessage());
+            return;
+        }
+
+        models.put(playerName, data);
+        io.execute(() -> {
+            try {
+                RecordLog.replaceAtomically(modelFile(playerName), out -> out.write(data));
+            } catch (IOException e) {
+                System.err.println("Error saving AI model for " + playerName + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Stop taking new work and wait for pending saves to reach the disk
+     */
+    public static void shutdown() {
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("AI model saves still pending at exit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Read a player's model file, or NO_MODEL if there is none
+     */
+    private static byte[] read(String playerName) {
+        File file = modelFile(playerName);
+        if (!file.exists()) {
+            return NO_MODEL;
+        }
+
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            System.err.println("Error loading AI model for " + playerName + ": " + e.getMessage());
+            return NO_MODEL;
+        }
+    }
+
+    /**
+     * Build a new strategy from an encoded model (a fresh one for NO_MODEL or bad data)
+     */
+    private static AIStrategy decode(String playerName, byte[] data) {
+        if (data.length == 0) {
+            return new AIStrategy();
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != MODEL_MAGIC || in.readUnsignedByte() != MODEL_VERSION) {
+                throw new IOException("Unknown model format");
+            }
+            return AIStrategy.readFrom(in);
+        } catch (IOException e) {
+            System.err.println("Error loading AI model for " + playerName + ": " + e.getMessage());
+            return new AIStrategy();
+        }
+    }
+
+    /**
+     * Model file for a player; the name is hex encoded so any name is a safe file name
+     * Long names use a SHA-256 of the name instead, since hex doubles the length
+     */
+    private static File modelFile(String playerName) {
+        byte[] bytes = playerName.getBytes(StandardCharsets.UTF_8);
+        String prefix = "";
+        if (bytes.length > MAX_HEX_NAME_BYTES) {
+            try {
+                bytes = MessageDigest.getInstance("SHA-256").digest(bytes);
+                prefix = "sha256-";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // Every JVM provides SHA-256
+            }
+        }
+
+        StringBuilder fileName = new StringBuilder(prefix);
+        for (byte b : bytes) {
+            fileName.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return new File(Constants.AI_MODEL_DIR, fileName.append(".model").toString());
+    }
+}
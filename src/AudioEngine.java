@@ -0,0 +1,269 @@
+import javax.sound.sampled.*;
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Audio Engine - Software mixer feeding one long-lived audio line
+ * Every sound in the game is a voice: a buffer of 16-bit mono samples and a
+ * gain. Voices are handed to a single mixer thread through a bounded ring
+ * buffer; the thread sums all active voices in small fixed-size blocks and
+ * writes them to one SourceDataLine, so starting a sound never opens a line
+ * or a thread and always takes effect within a block or two.
+ * The mixer also keeps the clock: a voice may carry the frame it should
+ * start at, and it begins exactly there, even in the middle of a block
+ */
+class AudioEngine {
+    public static final float SAMPLE_RATE = 44100f;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 1, true, false);
+
+    private static final int BLOCK_FRAMES = 256; // About 6ms per block
+    private static final int LINE_BLOCKS = 4; // Blocks buffered by the line
+    private static final int MAX_VOICES = 16; // The oldest voice is dropped beyond this
+    private static final int MAX_SCHEDULED = 64; // Voices waiting for their start frame
+    private static final int GAIN_ONE = 1 << 12; // Fixed-point gain of 1.0
+    private static final float MAX_GAIN = 8f; // Keeps sample * gain well inside an int
+
+    private static final ArrayBlockingQueue<Voice> pending = new ArrayBlockingQueue<>(64);
+
+    // Decoding and synthesis run here, in parallel and off the UI thread
+    private static final AtomicInteger loaderThreads = new AtomicInteger();
+    private static final ExecutorService loader = Executors.newFixedThreadPool(
+        Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+            Thread thread = new Thread(runnable, "audio-loader-" + loaderThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private static SourceDataLine line;
+    private static Thread mixerThread;
+    private static volatile boolean unavailable;
+    private static final AtomicBoolean startRequested = new AtomicBoolean();
+    private static volatile boolean running;
+    private static volatile boolean stopRequested;
+    private static volatile long mixedFrames; // Mixer clock: frames mixed so far
+
+    /**
+     * Open the line and start the mixer thread (once)
+     * @return false if no audio line is available
+     */
+    public static synchronized boolean start() {
+        if (running) return true;
+        if (unavailable) return false;
+
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, BLOCK_FRAMES * LINE_BLOCKS * FORMAT.getFrameSize());
+            line.start();
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.out.println("Audio output unavailable: " + e.getMessage());
+            unavailable = true;
+            pending.clear(); // Voices queued while the line was opening
+            return false;
+        }
+
+        running = true;
+        mixerThread = new Thread(AudioEngine::mixLoop, "audio-mixer");
+        mixerThread.setDaemon(true);
+        mixerThread.setPriority(Thread.MAX_PRIORITY);
+        mixerThread.start();
+        return true;
+    }
+
+    /**
+     * Run a loading task (decoding, synthesis, opening the line) in the background
+     */
+    public static <T> CompletableFuture<T> loadInBackground(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, loader);
+    }
+
+    /**
+     * Start playing samples (in FORMAT) at a gain from 0.0 to 8.0 (1.0 plays them as they are)
+     * Never blocks; the sound is dropped if the engine is unavailable or flooded
+     */
+    public static boolean play(short[] samples, float gain) {
+        return play(samples, gain, 0);
+    }
+
+    /**
+     * Start playing samples at a frame of the mixer clock (see now())
+     * A frame that has already been mixed means as soon as possible.
+     * Never waits for the line to open: before the engine runs, the voice is
+     * queued and the line is opened on a loader thread
+     */
+    public static boolean play(short[] samples, float gain, long startFrame) {
+        if (samples == null || samples.length == 0 || unavailable) return false;
+        if (!running && startRequested.compareAndSet(false, true)) {
+            loadInBackground(AudioEngine::start);
+        }
+        return pending.offer(new Voice(samples, Math.round(Math.max(0f, Math.min(gain, MAX_GAIN)) * GAIN_ONE), startFrame));
+    }
+
+    /**
+     * Earliest frame of the mixer clock a voice queued now can still start on time
+     * (the clock only advances while something plays)
+     */
+    public static long now() {
+        return mixedFrames + BLOCK_FRAMES;
+    }
+
+    /**
+     * Number of frames in a duration
+     */
+    public static long framesFor(long millis) {
+        return millis * (long) SAMPLE_RATE / 1000;
+    }
+
+    /**
+     * Silence every playing voice
+     */
+    public static void stopAll() {
+        pending.clear();
+        stopRequested = true;
+    }
+
+    /**
+     * Stop the mixer thread and close the line
+     */
+    public static synchronized void shutdown() {
+        if (!running) return;
+        running = false;
+        startRequested.set(false); // A later play() opens the line again
+        mixerThread.interrupt();
+        try {
+            mixerThread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        line.close();
+        pending.clear();
+    }
+
+    /**
+     * Decode any readable audio stream into samples in FORMAT
+     * Float and multi-channel data are converted first, then resampled
+     */
+    public static short[] decode(AudioInputStream stream) throws IOException {
+        AudioInputStream converted = stream;
+        if (!AudioSystem.isConversionSupported(FORMAT, stream.getFormat())) {
+            AudioFormat source = stream.getFormat();
+            AudioFormat pcm = new AudioFormat(source.getSampleRate(), 16, source.getChannels(), true, false);
+            converted = AudioSystem.getAudioInputStream(pcm, stream);
+        }
+        converted = AudioSystem.getAudioInputStream(FORMAT, converted);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = converted.read(chunk)) > 0) {
+            bytes.write(chunk, 0, read);
+        }
+
+        byte[] data = bytes.toByteArray();
+        short[] samples = new short[data.length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((data[2 * i] & 0xFF) | (data[2 * i + 1] << 8)); // Little-endian
+        }
+        return samples;
+    }
+
+    private static void mixLoop() {
+        Voice[] active = new Voice[MAX_VOICES];
+        int activeCount = 0;
+        Voice[] scheduled = new Voice[MAX_SCHEDULED];
+        int scheduledCount = 0;
+        int[] mix = new int[BLOCK_FRAMES];
+        byte[] block = new byte[BLOCK_FRAMES * 2];
+
+        while (running) {
+            try {
+                if (stopRequested) {
+                    stopRequested = false;
+                    Arrays.fill(active, 0, activeCount, null);
+                    Arrays.fill(scheduled, 0, scheduledCount, null);
+                    activeCount = 0;
+                    scheduledCount = 0;
+                }
+
+                // Idle: wait for the next voice instead of writing silence
+                if (activeCount == 0 && scheduledCount == 0) {
+                    Voice voice = pending.poll(100, TimeUnit.MILLISECONDS);
+                    if (voice == null) continue;
+                    scheduled[scheduledCount++] = voice;
+                }
+                Voice voice;
+                while (scheduledCount < MAX_SCHEDULED && (voice = pending.poll()) != null) {
+                    scheduled[scheduledCount++] = voice;
+                }
+
+                // Start every voice due in this block, at its exact frame
+                long blockStart = mixedFrames;
+                int waiting = 0;
+                for (int v = 0; v < scheduledCount; v++) {
+                    Voice due = scheduled[v];
+                    if (due.startFrame >= blockStart + BLOCK_FRAMES) {
+                        scheduled[waiting++] = due;
+                        continue;
+                    }
+                    due.startFrame = Math.max(due.startFrame, blockStart);
+                    if (activeCount == MAX_VOICES) {
+                        System.arraycopy(active, 1, active, 0, --activeCount); // Drop the oldest
+                    }
+                    active[activeCount++] = due;
+                }
+                Arrays.fill(scheduled, waiting, scheduledCount, null);
+                scheduledCount = waiting;
+
+                Arrays.fill(mix, 0);
+                int kept = 0;
+                for (int v = 0; v < activeCount; v++) {
+                    Voice current = active[v];
+                    int offset = (int) Math.max(0, current.startFrame - blockStart);
+                    int frames = Math.min(BLOCK_FRAMES - offset, current.samples.length - current.position);
+                    for (int i = 0; i < frames; i++) {
+                        mix[offset + i] += current.samples[current.position + i] * current.gain >> 12;
+                    }
+                    current.position += frames;
+                    if (current.position < current.samples.length) {
+                        active[kept++] = current; // Keeps start order, so index 0 is the oldest
+                    }
+                }
+                Arrays.fill(active, kept, activeCount, null);
+                activeCount = kept;
+                mixedFrames = blockStart + BLOCK_FRAMES;
+
+                for (int i = 0; i < BLOCK_FRAMES; i++) {
+                    int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                    block[2 * i] = (byte) sample;
+                    block[2 * i + 1] = (byte) (sample >> 8);
+                }
+                line.write(block, 0, block.length); // Blocks until the line has room, which paces the loop
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * One playing sound: shared sample data plus its own start frame and position
+     */
+    private static class Voice {
+        final short[] samples;
+        final int gain;
+        long startFrame;
+        int position;
+
+        Voice(short[] samples, int gain, long startFrame) {
+            this.samples = samples;
+            this.gain = gain;
+            this.startFrame = startFrame;
+        }
+    }
+}
@@ -255,6 +255,36 @@ public class Constants {
     public static final String SCISSORS_IMAGE = IMAGES_PATH + "scissors.png";
     public static final String APP_ICON = IMAGES_PATH + "question.png";
     
+    // ===== HISTORY STORAGE =====
+    
+    /** Directory holding the daily history segments */
+    public static final String HISTORY_DIR = "history";
+    
+    /** Old single-file history, migrated into segments on first start */
+    public static final String LEGACY_HISTORY_FILE = "game_history.csv";
+    
+    /** Days of individual records kept before a segment is dropped (its rollup stays) */
+    public static final int HISTORY_RETENTION_DAYS = 365;
+    
+    /**
+     * Days after which a rolled up segment is compressed into an archive
+     * Startup only reads today's segment, so archives are opened only by queries and exports
+     */
+    public static final int HISTORY_ARCHIVE_DAYS = 7;
+    
+    // ===== AI MODELS =====
+    
+    /** Directory holding one learned AI model file per player */
+    public static final String AI_MODEL_DIR = "ai_models";
+    
+    // ===== PLAYER STORAGE =====
+    
+    /** Delay before changed player profiles are written, so a burst of updates becomes one write */
+    public static final int PLAYER_FLUSH_DELAY_MS = 500;
+    
+    /** Number of changed profiles that triggers a write without waiting for the delay */
+    public static final int PLAYER_FLUSH_THRESHOLD = 256;
+    
     // ===== VALIDATION CONSTANTS =====
     
     /** Minimum number of rounds */
@@ -1,18 +1,20 @@
-import javax.sound.sampled.*;
-import java.io.*;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Enhanced Sound Manager with distinct sound effects for each action
- * Provides unique audio feedback for different game events
+ * Provides unique audio feedback for different game events.
+ * Tones are synthesized once into cached sample buffers and handed to the
+ * audio engine's mixer, which plays any number of overlapping tones on one line.
+ * Sequences are scheduled on the mixer clock up front, so they hold no thread
+ * and their notes land exactly on time
  */
 public class EnhancedSoundManager {
-    private static Map<String, Clip> soundClips = new HashMap<>();
     private static boolean soundEnabled = true;
-    private static ExecutorService soundExecutor = Executors.newCachedThreadPool();
+    
+    // Synthesized tones by frequency, duration and volume (see toneKey)
+    private static final Map<Long, short[]> toneCache = new ConcurrentHashMap<>();
     
     // Enhanced sound mappings with distinct effects
     private static final Map<String, SoundConfig> SOUND_CONFIGS = new HashMap<String, SoundConfig>() {{
@@ -70,15 +72,16 @@ public class EnhancedSoundManager {
     
     /**
      * Initialize enhanced sound system
+     * Returns immediately: the audio line is opened and every configured sound
+     * (plus the fallback tone) is synthesized in parallel in the background.
+     * A tone played before then is simply synthesized on the spot
      */
     public static void initialize() {
-        // Pre-generate commonly used sounds
-        preloadSound("menu_click");
-        preloadSound("countdown_tick");
-        preloadSound("move_select");
-        preloadSound("round_win");
-        preloadSound("round_lose");
-        preloadSound("round_draw");
+        AudioEngine.loadInBackground(AudioEngine::start);
+        for (String soundName : SOUND_CONFIGS.keySet()) {
+            AudioEngine.loadInBackground(() -> preloadSound(soundName));
+        }
+        AudioEngine.loadInBackground(() -> getTone(800, 100, 0.5f));
     }
     
     /**
@@ -87,36 +90,19 @@ public class EnhancedSoundManager {
     public static void playSound(String soundName) {
         if (!soundEnabled) return;
         
-        soundExecutor.submit(() -> {
-            try {
-                SoundConfig config = SOUND_CONFIGS.get(soundName);
-                if (config != null) {
-                    playTone(config.frequency, config.duration, config.volume);
-                } else {
-                    // Fallback for unknown sounds
-                    playTone(800, 100, 0.5f);
-                }
-            } catch (Exception e) {
-                System.out.println("Error playing sound: " + soundName);
-            }
-        });
+        AudioEngine.play(getSoundTone(soundName), 1.0f);
     }
     
     /**
      * Play sound with custom parameters
+     * The tone cached at its configured volume is reused; the mixer gain scales it to the requested volume
      */
     public static void playSound(String soundName, float volume) {
         if (!soundEnabled) return;
         
         SoundConfig config = SOUND_CONFIGS.get(soundName);
         if (config != null) {
-            soundExecutor.submit(() -> {
-                try {
-                    playTone(config.frequency, config.duration, volume);
-                } catch (Exception e) {
-                    System.out.println("Error playing sound: " + soundName);
-                }
-            });
+            AudioEngine.play(getSoundTone(soundName), volume / config.volume);
         }
     }
     
@@ -126,16 +112,11 @@ public class EnhancedSoundManager {
     public static void playSoundSequence(String[] soundNames, int delayMs) {
         if (!soundEnabled) return;
         
-        soundExecutor.submit(() -> {
-            for (String soundName : soundNames) {
-                playSound(soundName);
-                try {
-                    Thread.sleep(delayMs);
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        });
+        // Every note is placed relative to the same clock reading, so timing cannot drift
+        long start = AudioEngine.now();
+        for (int i = 0; i < soundNames.length; i++) {
+            AudioEngine.play(getSoundTone(soundNames[i]), 1.0f, start + AudioEngine.framesFor((long) i * delayMs));
+        }
     }
     
     /**
@@ -150,90 +131,83 @@ public class EnhancedSoundManager {
      * Play countdown sequence
      */
     public static void playCountdownSequence() {
-        soundExecutor.submit(() -> {
-            // Three ticks followed by final sound
-            for (int i = 0; i < 3; i++) {
-                playSound("countdown_tick");
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-            playSound("countdown_final");
-        });
+        // Three ticks followed by final sound, one second apart
+        String[] sequence = {"countdown_tick", "countdown_tick", "countdown_tick", "countdown_final"};
+        playSoundSequence(sequence, 1000);
     }
     
     /**
-     * Generate and play a tone
+     * Cached samples of a configured sound (unknown names get the fallback tone)
      */
-    private static void playTone(int frequency, int duration, float volume) {
-        try {
-            int sampleRate = 16000;
-            int samples = (sampleRate * duration) / 1000;
-            byte[] buffer = new byte[samples];
-            
-            // Generate sine wave
-            for (int i = 0; i < samples; i++) {
-                double angle = 2.0 * Math.PI * i * frequency / sampleRate;
-                buffer[i] = (byte) (Math.sin(angle) * 127 * volume);
-            }
-            
-            // Apply envelope for smoother sound
-            applyEnvelope(buffer);
-            
-            // Play the sound
-            AudioFormat format = new AudioFormat(sampleRate, 8, 1, true, false);
-            InputStream inputStream = new ByteArrayInputStream(buffer);
-            AudioInputStream audioInputStream = new AudioInputStream(inputStream, format, buffer.length);
-            
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
-            clip.start();
-            
-            // Clean up after playing
-            new Thread(() -> {
-                try {
-                    Thread.sleep(duration + 100);
-                    clip.close();
-                } catch (Exception e) {
-                    // Ignore cleanup errors
-                }
-            }).start();
-            
-        } catch (Exception e) {
-            System.out.println("Error generating tone: " + e.getMessage());
+    private static short[] getSoundTone(String soundName) {
+        SoundConfig config = SOUND_CONFIGS.get(soundName);
+        if (config != null) {
+            return getTone(config.frequency, config.duration, config.volume);
+        }
+        // Fallback for unknown sounds
+        return getTone(800, 100, 0.5f);
+    }
+    
+    /**
+     * Cached samples of a tone
+     */
+    private static short[] getTone(int frequency, int duration, float volume) {
+        return toneCache.computeIfAbsent(toneKey(frequency, duration, volume),
+            key -> synthesizeTone(frequency, duration, volume));
+    }
+    
+    /**
+     * Cache key: 16 bits of frequency, 16 bits of duration, then the volume's float bits
+     */
+    private static long toneKey(int frequency, int duration, float volume) {
+        return (long) (frequency & 0xFFFF) << 48 | (long) (duration & 0xFFFF) << 32
+            | (Float.floatToIntBits(volume) & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Generate a tone
+     */
+    private static short[] synthesizeTone(int frequency, int duration, float volume) {
+        int sampleRate = (int) AudioEngine.SAMPLE_RATE;
+        int samples = (sampleRate * duration) / 1000;
+        short[] buffer = new short[samples];
+        
+        // Generate sine wave
+        for (int i = 0; i < samples; i++) {
+            double angle = 2.0 * Math.PI * i * frequency / sampleRate;
+            buffer[i] = (short) (Math.sin(angle) * Short.MAX_VALUE * volume);
         }
+        
+        // Apply envelope for smoother sound
+        applyEnvelope(buffer);
+        return buffer;
     }
     
     /**
      * Apply envelope to make sound smoother
      */
-    private static void applyEnvelope(byte[] buffer) {
-        int fadeLength = Math.min(buffer.length / 10, 1000);
+    private static void applyEnvelope(short[] buffer) {
+        int fadeLength = Math.min(buffer.length / 10, (int) AudioEngine.SAMPLE_RATE / 16); // At most 62ms
         
         // Fade in
         for (int i = 0; i < fadeLength; i++) {
             float factor = (float) i / fadeLength;
-            buffer[i] = (byte) (buffer[i] * factor);
+            buffer[i] = (short) (buffer[i] * factor);
         }
         
         // Fade out
         for (int i = buffer.length - fadeLength; i < buffer.length; i++) {
             float factor = (float) (buffer.length - i) / fadeLength;
-            buffer[i] = (byte) (buffer[i] * factor);
+            buffer[i] = (short) (buffer[i] * factor);
         }
     }
     
     /**
      * Preload a sound for better performance
      */
-    private static void preloadSound(String soundName) {
-        // Just initialize the sound config
+    private static short[] preloadSound(String soundName) {
         SoundConfig config = SOUND_CONFIGS.get(soundName);
-        if (config != null) {
-            // Sound will be generated when first played
-        }
+        return config != null ? getTone(config.frequency, config.duration, config.volume) : null;
     }
     
     /**
@@ -341,16 +315,6 @@ public class EnhancedSoundManager {
      */
     public static void cleanup() {
         soundEnabled = false;
-        if (soundExecutor != null && !soundExecutor.isShutdown()) {
-            soundExecutor.shutdown();
-        }
-        
-        for (Clip clip : soundClips.values()) {
-            if (clip != null && clip.isRunning()) {
-                clip.stop();
-                clip.close();
-            }
-        }
-        soundClips.clear();
+        AudioEngine.shutdown();
     }
 }
\ No newline at end of file
@@ -2,121 +2,337 @@ import java.io.*;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
- * Game History Manager - Handles saving and loading game history to/from CSV
- * Provides statistics and historical data management
+ * Game History Manager - Handles saving and loading game history
+ * Records are stored in daily CSV segments; finished days are rolled up into
+ * summaries so statistics never need to rescan old games, and a persisted
+ * timestamp/mode index locates records without scanning the segments.
+ * Game and round timings are kept in per-mode latency histograms
  */
 public class GameHistory {
-    private static final String HISTORY_FILE = "game_history.csv";
-    private static final String CSV_HEADER = "Date,Time,GameMode,Rounds,Player1Score,Player2Score,Winner,Duration";
-    private static List<GameRecord> gameRecords = new ArrayList<>();
-    private static SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-    private static SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+    private static HistorySegmentStore segmentStore =
+        new HistorySegmentStore(Constants.HISTORY_DIR, Constants.HISTORY_RETENTION_DAYS,
+            Constants.HISTORY_ARCHIVE_DAYS);
+    private static String currentDay = HistorySegmentStore.dayKey(new Date());
+    private static DailyRollup currentDayStats = new DailyRollup(currentDay);
+    private static HistoryIndex historyIndex = new HistoryIndex(new File(Constants.HISTORY_DIR, "index.log"));
+    private static LatencyStats latencyStats = new LatencyStats(new File(Constants.HISTORY_DIR, "latency.dat"));
     
     /**
      * Initialize the game history system
      */
     public static void initialize() {
-        loadHistoryFromFile();
+        segmentStore.open();
+        migrateLegacyFile();
+        if (segmentStore.upgradeFormat()) {
+            historyIndex.clear(); // Offsets changed, rebuilt below
+        }
+        
+        currentDay = HistorySegmentStore.dayKey(new Date());
+        currentDayStats = new DailyRollup(currentDay);
+        segmentStore.maintain(currentDay);
+        
+        if (historyIndex.load()) {
+            historyIndex.catchUp(segmentStore);
+        } else {
+            historyIndex.rebuild(segmentStore);
+        }
+        dropExpiredIndexEntries();
+        
+        if (!latencyStats.load()) {
+            latencyStats.rebuild(segmentStore);
+        }
+        
+        // No records are kept in memory; only today's totals are read back, older days have rollups
+        segmentStore.forEachInSegment(currentDay, null, null, currentDayStats::add);
     }
     
     /**
-     * Add a new game record to history
+     * Add a new game record to history, including its per-round moves and timings
+     * The outcome is derived from the scores
      */
-    public static void addGameRecord(GameMode mode, int rounds, int player1Score, 
-                                   int player2Score, String winner, long durationMs) {
+    public static void addGameRecord(GameMode mode, int rounds, int player1Score, int player2Score,
+                                     String player1Name, String player2Name,
+                                     long durationMs, PackedRounds roundMoves, long[] roundDurationsMs) {
         Date now = new Date();
         GameRecord record = new GameRecord(
-            now, mode, rounds, player1Score, player2Score, winner, durationMs
+            now, mode, rounds, player1Score, player2Score, player1Name, player2Name, durationMs, roundMoves
         );
         
-        gameRecords.add(record);
-        saveHistoryToFile();
+        // Seal the previous day when the first game of a new day is recorded
+        String day = HistorySegmentStore.dayKey(now);
+        if (!day.equals(currentDay)) {
+            if (currentDayStats.getStats(GameMode.PVC).getTotalGames() > 0
+                    || currentDayStats.getStats(GameMode.PVP).getTotalGames() > 0) {
+                segmentStore.rollUp(currentDay, currentDayStats);
+            }
+            currentDay = day;
+            currentDayStats = new DailyRollup(day);
+            segmentStore.maintain(day);
+            dropExpiredIndexEntries();
+        }
+        
+        currentDayStats.add(record);
+        long offset = segmentStore.append(record);
+        if (offset >= 0) {
+            historyIndex.add(record, day, offset);
+        }
+        latencyStats.add(mode, durationMs, roundDurationsMs);
+    }
+    
+    /**
+     * Get all records between two dates (inclusive), reading only the overlapping segments
+     */
+    public static List<GameRecord> getRecordsInRange(Date from, Date to) {
+        return getRecords(new HistoryFilter(from, to, null, null));
+    }
+    
+    /**
+     * Get all records matching a filter
+     * Dates are binary searched in the timestamp index and a mode filter walks
+     * that mode's posting list, so only matching records are read from disk
+     */
+    public static List<GameRecord> getRecords(HistoryFilter filter) {
+        int from = filter.getFrom() != null ? historyIndex.lowerBound(filter.getFrom().getTime()) : 0;
+        int to = filter.getTo() != null ? historyIndex.upperBound(filter.getTo().getTime()) : historyIndex.size();
+        
+        int[] positions;
+        if (filter.getMode() != null) {
+            positions = historyIndex.postingsInRange(filter.getMode(), from, to);
+        } else {
+            positions = new int[Math.max(0, to - from)];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = from + i;
+            }
+        }
+        
+        List<GameRecord> records = new ArrayList<>(positions.length);
+        readIndexed(positions, positions.length, record -> {
+            if (filter.matches(record)) {
+                records.add(record);
+            }
+        });
+        return records;
     }
     
     /**
-     * Get all game records
+     * Count the games of one mode between two dates using only the index
      */
-    public static List<GameRecord> getAllRecords() {
-        return new ArrayList<>(gameRecords);
+    public static int countGames(GameMode mode, Date from, Date to) {
+        return historyIndex.countBetween(mode, from != null ? from.getTime() : Long.MIN_VALUE,
+            to != null ? to.getTime() : Long.MAX_VALUE);
     }
     
     /**
      * Get total number of games played
      */
     public static int getTotalGames() {
-        return gameRecords.size();
+        return getStatsForMode(GameMode.PVC).getTotalGames() + getStatsForMode(GameMode.PVP).getTotalGames();
     }
     
     /**
      * Get total wins for player 1 (or user in PvC mode)
      */
     public static int getTotalWins() {
-        int wins = 0;
-        for (GameRecord record : gameRecords) {
-            if (record.getWinner().contains("Player 1") || record.getWinner().contains("You")) {
-                wins++;
-            }
-        }
-        return wins;
+        return getStatsForMode(GameMode.PVC).getWins() + getStatsForMode(GameMode.PVP).getWins();
     }
     
     /**
      * Get win percentage for player 1 (or user in PvC mode)
      */
     public static double getWinPercentage() {
-        if (gameRecords.isEmpty()) return 0.0;
-        return (double) getTotalWins() / getTotalGames() * 100.0;
+        int totalGames = getTotalGames();
+        if (totalGames == 0) return 0.0;
+        return (double) getTotalWins() / totalGames * 100.0;
     }
     
     /**
      * Get statistics for a specific game mode
      */
     public static GameModeStats getStatsForMode(GameMode mode) {
-        List<GameRecord> modeRecords = new ArrayList<>();
-        for (GameRecord record : gameRecords) {
-            if (record.getGameMode() == mode) {
-                modeRecords.add(record);
-            }
+        // Finished days come from their rollups, today from the live counters
+        GameModeStats stats = new GameModeStats(mode);
+        for (DailyRollup rollup : segmentStore.getRollups()) {
+            stats.merge(rollup.getStats(mode));
         }
+        stats.merge(currentDayStats.getStats(mode));
         
-        return new GameModeStats(mode, modeRecords);
+        return stats;
     }
     
     /**
      * Get recent games (last N games)
      */
     public static List<GameRecord> getRecentGames(int count) {
-        List<GameRecord> recent = new ArrayList<>(gameRecords);
-        Collections.reverse(recent); // Most recent first
+        return query(new HistoryQuery(HistoryFilter.all(), HistoryOrder.NEWEST_FIRST, count), null).getRecords();
+    }
+    
+    /**
+     * Visit every stored game matching the filter, oldest first, without
+     * keeping them in memory
+     */
+    public static void forEachGame(HistoryFilter filter, Consumer<GameRecord> consumer) {
+        segmentStore.forEachInRange(filter.getFrom(), filter.getTo(), record -> {
+            if (filter.matches(record)) {
+                consumer.accept(record);
+            }
+        });
+    }
+    
+    /**
+     * Visit every stored round of every game matching the filter
+     * Games are streamed from the segments and rounds decoded from their
+     * packed form, so this scales to any number of rounds
+     */
+    public static void forEachRound(HistoryFilter filter, RoundVisitor visitor) {
+        segmentStore.forEachInRange(filter.getFrom(), filter.getTo(), record -> {
+            if (!filter.matches(record)) return;
+            
+            PackedRounds rounds = record.getRoundMoves();
+            for (int i = 0; i < rounds.getRoundCount(); i++) {
+                visitor.visit(record, i, rounds.getPlayer1Move(i), rounds.getPlayer2Move(i), rounds.getResult(i));
+            }
+        });
+    }
+    
+    /**
+     * Get one page of history matching a query
+     * @param cursor the previous page's next cursor, or null for the first page
+     */
+    public static HistoryPage query(HistoryQuery query, HistoryCursor cursor) {
+        if (query.getFilter().getMode() != null) {
+            return queryIndexed(query, cursor);
+        }
+        return segmentStore.query(query, cursor);
+    }
+    
+    /**
+     * Page through one mode's records by walking its posting list
+     */
+    private static HistoryPage queryIndexed(HistoryQuery query, HistoryCursor cursor) {
+        HistoryFilter filter = query.getFilter();
+        GameMode mode = filter.getMode();
+        boolean newestFirst = query.getOrder() == HistoryOrder.NEWEST_FIRST;
+        
+        int low = filter.getFrom() != null ? historyIndex.lowerBound(filter.getFrom().getTime()) : 0;
+        int high = filter.getTo() != null ? historyIndex.upperBound(filter.getTo().getTime()) : historyIndex.size();
+        if (cursor != null) {
+            int position = historyIndex.positionOf(cursor.getDay(), cursor.getPosition());
+            if (newestFirst) high = Math.min(high, position); else low = Math.max(low, position);
+        }
+        
+        int first = historyIndex.postingLowerBound(mode, low);
+        int last = historyIndex.postingLowerBound(mode, high); // Exclusive
+        int next = newestFirst ? last - 1 : first;
+        
+        List<GameRecord> records = new ArrayList<>();
+        int[] batch = new int[query.getPageSize()];
+        int lastPosition = -1;
+        
+        while (records.size() < query.getPageSize() && next >= first && next < last) {
+            // Read the next batch of candidates; a result filter may reject some of them
+            int count = 0;
+            while (count < batch.length - records.size() && next >= first && next < last) {
+                batch[count++] = historyIndex.postingAt(mode, next);
+                next += newestFirst ? -1 : 1;
+            }
+            if (newestFirst) {
+                reverse(batch, count);
+            }
+            
+            List<GameRecord> read = new ArrayList<>();
+            readIndexed(batch, count, read::add);
+            if (newestFirst) {
+                Collections.reverse(read);
+            }
+            for (GameRecord record : read) {
+                if (filter.matches(record)) {
+                    records.add(record);
+                }
+            }
+            lastPosition = newestFirst ? batch[0] : batch[count - 1];
+        }
         
-        if (recent.size() <= count) {
-            return recent;
+        if (lastPosition < 0 || next < first || next >= last) {
+            return new HistoryPage(records, null);
         }
         
-        return recent.subList(0, count);
+        String day = historyIndex.getDay(lastPosition);
+        long offset = historyIndex.getOffset(lastPosition);
+        return new HistoryPage(records, new HistoryCursor(day, newestFirst ? offset : offset + 1));
+    }
+    
+    /**
+     * Read the records at ascending index positions, one file open per segment
+     */
+    private static void readIndexed(int[] positions, int count, Consumer<GameRecord> consumer) {
+        long[] offsets = new long[count];
+        int start = 0;
+        while (start < count) {
+            int epochDay = historyIndex.getEpochDay(positions[start]);
+            int end = start;
+            while (end < count && historyIndex.getEpochDay(positions[end]) == epochDay) {
+                offsets[end] = historyIndex.getOffset(positions[end]);
+                end++;
+            }
+            segmentStore.readAt(historyIndex.getDay(positions[start]), offsets, start, end, consumer);
+            start = end;
+        }
+    }
+    
+    private static void reverse(int[] values, int count) {
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+    
+    /**
+     * Drop index entries for segments removed by the retention window
+     */
+    private static void dropExpiredIndexEntries() {
+        String firstDay = segmentStore.getFirstDay();
+        if (firstDay != null) {
+            historyIndex.dropBefore(firstDay);
+        } else if (historyIndex.size() > 0) {
+            historyIndex.clear();
+        }
     }
     
     /**
      * Clear all game history
      */
     public static void clearHistory() {
-        gameRecords.clear();
-        saveHistoryToFile();
+        currentDayStats = new DailyRollup(currentDay);
+        segmentStore.clear();
+        historyIndex.clear();
+        latencyStats.clear();
+    }
+    
+    /**
+     * Get the game duration histogram of a mode (null for all modes)
+     */
+    public static LatencyHistogram getGameDurations(GameMode mode) {
+        return latencyStats.getGameDurations(mode);
+    }
+    
+    /**
+     * Get the round timing histogram of a mode (null for all modes)
+     */
+    public static LatencyHistogram getRoundDurations(GameMode mode) {
+        return latencyStats.getRoundDurations(mode);
     }
     
     /**
      * Export history to CSV file
      */
     public static boolean exportToCSV(String filename) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
-            writer.println(CSV_HEADER);
-            
-            for (GameRecord record : gameRecords) {
-                writer.println(record.toCSVString());
-            }
-            
+        try {
+            exportHistory(new File(filename), ExportFormat.CSV, HistoryFilter.all(), null);
             return true;
         } catch (IOException e) {
             System.err.println("Error exporting history to CSV: " + e.getMessage());
@@ -125,27 +341,22 @@ public class GameHistory {
     }
     
     /**
-     * Save history to file
+     * Stream matching records from the segments into an export file
+     * Safe to call off the EDT; progress receives 0-100 as segments complete
+     * @return number of records exported
      */
-    private static void saveHistoryToFile() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(HISTORY_FILE))) {
-            writer.println(CSV_HEADER);
-            
-            for (GameRecord record : gameRecords) {
-                writer.println(record.toCSVString());
-            }
-        } catch (IOException e) {
-            System.err.println("Error saving game history: " + e.getMessage());
-        }
+    public static int exportHistory(File target, ExportFormat format, HistoryFilter filter,
+                                    IntConsumer progress) throws IOException {
+        return new HistoryExporter(segmentStore).export(target, format, filter, progress);
     }
     
     /**
-     * Load history from file
+     * Move records from the old single-file history into daily segments
      */
-    private static void loadHistoryFromFile() {
-        File file = new File(HISTORY_FILE);
-        if (!file.exists()) {
-            return; // No history file yet
+    private static void migrateLegacyFile() {
+        File file = new File(Constants.LEGACY_HISTORY_FILE);
+        if (!file.exists() || !segmentStore.isEmpty()) {
+            return; // Nothing to migrate, or already migrated
         }
         
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
@@ -154,11 +365,17 @@ public class GameHistory {
             while ((line = reader.readLine()) != null) {
                 GameRecord record = GameRecord.fromCSVString(line);
                 if (record != null) {
-                    gameRecords.add(record);
+                    segmentStore.append(record);
                 }
             }
         } catch (IOException e) {
-            System.err.println("Error loading game history: " + e.getMessage());
+            System.err.println("Error migrating game history: " + e.getMessage());
+            return;
+        }
+        
+        // Keep the old file around as a backup instead of deleting it
+        if (!file.renameTo(new File(Constants.LEGACY_HISTORY_FILE + ".bak"))) {
+            System.err.println("Could not rename migrated history file: " + file.getName());
         }
     }
     
@@ -166,7 +383,7 @@ public class GameHistory {
      * Get formatted statistics summary
      */
     public static String getStatsSummary() {
-        if (gameRecords.isEmpty()) {
+        if (getTotalGames() == 0) {
             return "No games played yet.";
         }
         
@@ -185,20 +402,82 @@ public class GameHistory {
             summary.append("Player vs Computer:\n");
             summary.append(String.format("  Games: %d, Wins: %d (%.1f%%)\n", 
                 pvcStats.getTotalGames(), pvcStats.getWins(), pvcStats.getWinPercentage()));
+            appendTimings(summary, GameMode.PVC);
         }
         
         if (pvpStats.getTotalGames() > 0) {
             summary.append("Player vs Player:\n");
             summary.append(String.format("  Games: %d, Wins: %d (%.1f%%)\n", 
                 pvpStats.getTotalGames(), pvpStats.getWins(), pvpStats.getWinPercentage()));
+            appendTimings(summary, GameMode.PVP);
         }
         
         return summary.toString();
     }
+    
+    private static void appendTimings(StringBuilder summary, GameMode mode) {
+        LatencyHistogram games = getGameDurations(mode);
+        LatencyHistogram rounds = getRoundDurations(mode);
+        if (games.getCount() > 0) {
+            summary.append("  Game duration: ").append(games.getSummary()).append("\n");
+        }
+        if (rounds.getCount() > 0) {
+            summary.append("  Round time: ").append(rounds.getSummary()).append("\n");
+        }
+    }
+}
+
+/**
+ * Record filter for history scans and queries
+ * Date bounds select which segments are opened; the mode is checked against
+ * day rollups first so days without matching games are skipped unread
+ */
+class HistoryFilter {
+    private final Date from;
+    private final Date to;
+    private final GameMode mode;
+    private final GameResult result;
+    
+    public HistoryFilter(Date from, Date to, GameMode mode, GameResult result) {
+        this.from = from;
+        this.to = to;
+        this.mode = mode;
+        this.result = result;
+    }
+    
+    public static HistoryFilter all() {
+        return new HistoryFilter(null, null, null, null);
+    }
+    
+    public static HistoryFilter forMode(GameMode mode) {
+        return new HistoryFilter(null, null, mode, null);
+    }
+    
+    public Date getFrom() { return from; }
+    public Date getTo() { return to; }
+    public GameMode getMode() { return mode; }
+    public GameResult getResult() { return result; }
+    
+    /**
+     * Check whether a day (by its rollup, null if not rolled up) can contain matches
+     */
+    public boolean mayMatchDay(DailyRollup rollup) {
+        return mode == null || rollup == null || rollup.getStats(mode).getTotalGames() > 0;
+    }
+    
+    public boolean matches(GameRecord record) {
+        if (mode != null && record.getGameMode() != mode) return false;
+        if (result != null && record.getResult() != result) return false;
+        if (from != null && record.getDate().before(from)) return false;
+        if (to != null && record.getDate().after(to)) return false;
+        return true;
+    }
 }
 
 /**
  * Individual game record
+ * The winner is stored as a GameOutcome code plus the player names; the
+ * display text ("Alice Wins!") is only built when something shows it
  */
 class GameRecord {
     private Date date;
@@ -206,18 +485,31 @@ class GameRecord {
     private int rounds;
     private int player1Score;
     private int player2Score;
-    private String winner;
+    private GameOutcome outcome;
+    private String player1Name;
+    private String player2Name;
     private long durationMs;
+    private PackedRounds roundMoves;
     
-    public GameRecord(Date date, GameMode gameMode, int rounds, int player1Score, 
-                     int player2Score, String winner, long durationMs) {
+    public GameRecord(Date date, GameMode gameMode, int rounds, int player1Score, int player2Score,
+                      String player1Name, String player2Name, long durationMs, PackedRounds roundMoves) {
+        this(date, gameMode, rounds, player1Score, player2Score,
+             GameOutcome.fromScores(player1Score, player2Score), player1Name, player2Name, durationMs, roundMoves);
+    }
+    
+    public GameRecord(Date date, GameMode gameMode, int rounds, int player1Score, int player2Score,
+                      GameOutcome outcome, String player1Name, String player2Name,
+                      long durationMs, PackedRounds roundMoves) {
         this.date = date;
         this.gameMode = gameMode;
         this.rounds = rounds;
         this.player1Score = player1Score;
         this.player2Score = player2Score;
-        this.winner = winner;
+        this.outcome = outcome;
+        this.player1Name = player1Name;
+        this.player2Name = player2Name;
         this.durationMs = durationMs;
+        this.roundMoves = roundMoves;
     }
     
     // Getters
@@ -226,8 +518,29 @@ class GameRecord {
     public int getRounds() { return rounds; }
     public int getPlayer1Score() { return player1Score; }
     public int getPlayer2Score() { return player2Score; }
-    public String getWinner() { return winner; }
+    public GameOutcome getOutcome() { return outcome; }
+    public String getPlayer1Name() { return player1Name; }
+    public String getPlayer2Name() { return player2Name; }
     public long getDurationMs() { return durationMs; }
+    public PackedRounds getRoundMoves() { return roundMoves; }
+    
+    /**
+     * Get the winner display text
+     */
+    public String getWinner() {
+        switch (outcome) {
+            case PLAYER1_WIN: return player1Name + " Wins!";
+            case PLAYER2_WIN: return player2Name + " Wins!";
+            default: return "It's a Tie!";
+        }
+    }
+    
+    /**
+     * Get the outcome from player 1's (or the user's) point of view
+     */
+    public GameResult getResult() {
+        return outcome.getResult();
+    }
     
     /**
      * Convert to CSV string format
@@ -236,24 +549,29 @@ class GameRecord {
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
         SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
         
-        return String.format("%s,%s,%s,%d,%d,%d,\"%s\",%d",
+        return String.format("%s,%s,%s,%d,%d,%d,%c,%d,%s,%s,%s",
             dateFormat.format(date),
             timeFormat.format(date),
             gameMode.toString(),
             rounds,
             player1Score,
             player2Score,
-            winner,
-            durationMs
+            outcome.getCode(),
+            durationMs,
+            roundMoves.toToken(),
+            escapeName(player1Name),
+            escapeName(player2Name)
         );
     }
     
     /**
      * Create GameRecord from CSV string
+     * Lines written before outcome codes existed have a quoted winner text in
+     * the outcome column; those are migrated on read
      */
     public static GameRecord fromCSVString(String csvLine) {
         try {
-            String[] parts = csvLine.split(",");
+            String[] parts = csvLine.split(",", -1);
             if (parts.length < 8) return null;
             
             SimpleDateFormat dateTimeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -263,16 +581,83 @@ class GameRecord {
             int rounds = Integer.parseInt(parts[3]);
             int p1Score = Integer.parseInt(parts[4]);
             int p2Score = Integer.parseInt(parts[5]);
-            String winner = parts[6].replace("\"", "");
+            
+            if (parts[6].startsWith("\"")) {
+                return fromLegacyParts(parts, date, mode, rounds, p1Score, p2Score);
+            }
+            
+            GameOutcome outcome = GameOutcome.fromCode(parts[6].charAt(0));
             long duration = Long.parseLong(parts[7]);
+            PackedRounds roundMoves = PackedRounds.fromToken(parts[8]);
+            String player1Name = unescapeName(parts[9]);
+            String player2Name = unescapeName(parts[10]);
             
-            return new GameRecord(date, mode, rounds, p1Score, p2Score, winner, duration);
+            return new GameRecord(date, mode, rounds, p1Score, p2Score, outcome,
+                                  player1Name, player2Name, duration, roundMoves);
         } catch (Exception e) {
             System.err.println("Error parsing CSV line: " + csvLine);
             return null;
         }
     }
     
+    /**
+     * Rebuild a record from the old free-text winner format
+     * The outcome comes from the scores; the winner text supplies one name
+     */
+    private static GameRecord fromLegacyParts(String[] parts, Date date, GameMode mode,
+                                              int rounds, int p1Score, int p2Score) {
+        // The quoted winner may itself have contained commas
+        int durationIndex = 7;
+        StringBuilder winner = new StringBuilder(parts[6]);
+        while (!winner.toString().endsWith("\"") && durationIndex < parts.length - 1) {
+            winner.append(',').append(parts[durationIndex++]);
+        }
+        String winnerText = winner.toString().replace("\"", "");
+        long duration = Long.parseLong(parts[durationIndex]);
+        PackedRounds roundMoves = parts.length > durationIndex + 1
+            ? PackedRounds.fromToken(parts[durationIndex + 1]) : PackedRounds.EMPTY;
+        
+        GameOutcome outcome = GameOutcome.fromScores(p1Score, p2Score);
+        String player1Name = mode == GameMode.PVC ? "You" : "Player 1";
+        String player2Name = mode == GameMode.PVC ? "Computer" : "Player 2";
+        String winnerName = winnerText.endsWith(" Wins!")
+            ? winnerText.substring(0, winnerText.length() - " Wins!".length()) : null;
+        if (winnerName != null && outcome == GameOutcome.PLAYER1_WIN) player1Name = winnerName;
+        if (winnerName != null && outcome == GameOutcome.PLAYER2_WIN) player2Name = winnerName;
+        
+        return new GameRecord(date, mode, rounds, p1Score, p2Score, outcome,
+                              player1Name, player2Name, duration, roundMoves);
+    }
+    
+    /**
+     * Percent-escape the characters that would break a CSV segment line
+     */
+    private static String escapeName(String name) {
+        StringBuilder escaped = new StringBuilder(name.length());
+        for (char c : name.toCharArray()) {
+            if (c == ',' || c == '%' || c == '|' || c == '"' || c == '\n' || c == '\r') {
+                escaped.append(String.format("%%%02X", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+    
+    private static String unescapeName(String escaped) {
+        StringBuilder name = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length(); i++) {
+            char c = escaped.charAt(i);
+            if (c == '%' && i + 2 < escaped.length()) {
+                name.append((char) Integer.parseInt(escaped.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                name.append(c);
+            }
+        }
+        return name.toString();
+    }
+    
     /**
      * Get formatted duration string
      */
@@ -289,53 +674,122 @@ class GameRecord {
     }
 }
 
+/**
+ * Typed game outcome, stored as a single character code
+ */
+enum GameOutcome {
+    PLAYER1_WIN('1', GameResult.WIN),
+    PLAYER2_WIN('2', GameResult.LOSE),
+    TIE('T', GameResult.DRAW);
+    
+    private final char code;
+    private final GameResult result;
+    
+    GameOutcome(char code, GameResult result) {
+        this.code = code;
+        this.result = result;
+    }
+    
+    public char getCode() { return code; }
+    
+    /**
+     * Result from player 1's point of view
+     */
+    public GameResult getResult() { return result; }
+    
+    public static GameOutcome fromScores(int player1Score, int player2Score) {
+        if (player1Score > player2Score) return PLAYER1_WIN;
+        if (player2Score > player1Score) return PLAYER2_WIN;
+        return TIE;
+    }
+    
+    public static GameOutcome fromCode(char code) {
+        switch (code) {
+            case '1': return PLAYER1_WIN;
+            case '2': return PLAYER2_WIN;
+            case 'T': return TIE;
+            default: throw new IllegalArgumentException("Unknown outcome code: " + code);
+        }
+    }
+}
+
 /**
  * Statistics for a specific game mode
+ * Kept as running totals so daily rollups can be merged without the records
  */
 class GameModeStats {
     private GameMode mode;
-    private List<GameRecord> records;
+    private int totalGames;
+    private int wins;
+    private int totalRounds;
+    private long totalDurationMs;
     
-    public GameModeStats(GameMode mode, List<GameRecord> records) {
+    public GameModeStats(GameMode mode) {
         this.mode = mode;
-        this.records = records;
+    }
+    
+    /**
+     * Count a single game
+     */
+    public void add(GameRecord record) {
+        totalGames++;
+        totalRounds += record.getRounds();
+        totalDurationMs += record.getDurationMs();
+        if (record.getResult() == GameResult.WIN) {
+            wins++;
+        }
+    }
+    
+    /**
+     * Add the totals of another set of statistics
+     */
+    public void merge(GameModeStats other) {
+        totalGames += other.totalGames;
+        wins += other.wins;
+        totalRounds += other.totalRounds;
+        totalDurationMs += other.totalDurationMs;
+    }
+    
+    public GameMode getMode() {
+        return mode;
     }
     
     public int getTotalGames() {
-        return records.size();
+        return totalGames;
     }
     
     public int getWins() {
-        int wins = 0;
-        for (GameRecord record : records) {
-            if (record.getWinner().contains("Player 1") || record.getWinner().contains("You")) {
-                wins++;
-            }
-        }
         return wins;
     }
     
     public double getWinPercentage() {
-        if (records.isEmpty()) return 0.0;
-        return (double) getWins() / getTotalGames() * 100.0;
+        if (totalGames == 0) return 0.0;
+        return (double) wins / totalGames * 100.0;
     }
     
     public long getAverageDuration() {
-        if (records.isEmpty()) return 0;
-        
-        long total = 0;
-        for (GameRecord record : records) {
-            total += record.getDurationMs();
-        }
-        
-        return total / records.size();
+        if (totalGames == 0) return 0;
+        return totalDurationMs / totalGames;
     }
     
     public int getTotalRoundsPlayed() {
-        int total = 0;
-        for (GameRecord record : records) {
-            total += record.getRounds();
-        }
-        return total;
+        return totalRounds;
+    }
+    
+    /**
+     * Convert totals to CSV fields: games,wins,rounds,duration
+     */
+    public String toCSVString() {
+        return totalGames + "," + wins + "," + totalRounds + "," + totalDurationMs;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Load totals from CSV fields starting at the given offset
+     */
+    public void loadCSVFields(String[] parts, int offset) {
+        totalGames = Integer.parseInt(parts[offset]);
+        wins = Integer.parseInt(parts[offset + 1]);
+        totalRounds = Integer.parseInt(parts[offset + 2]);
+        totalDurationMs = Long.parseLong(parts[offset + 3]);
+    }
+}
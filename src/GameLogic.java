@@ -1,4 +1,7 @@
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Game Logic - Handles all game rules, scoring, and AI
@@ -17,13 +20,27 @@ public class GameLogic {
     private boolean player1Cheating;
     private boolean player2Cheating;
     
-    // AI Strategy for computer player
+    // AI Strategy for computer player, loaded in the background for known players
     private AIStrategy aiStrategy;
+    private Future<AIStrategy> pendingStrategy;
+    private String opponentName;
     
     // Game history for statistics and AI learning
     private List<RoundResult> gameHistory;
     
+    // Time from the start of each round to its result
+    private long roundStartTime;
+    private List<Long> roundDurations = new ArrayList<>();
+    
     public GameLogic(GameMode mode, int rounds) {
+        this(mode, rounds, null);
+    }
+    
+    /**
+     * @param opponentName player the computer faces; its saved AI model is
+     *                     loaded in the background (null for a fresh model)
+     */
+    public GameLogic(GameMode mode, int rounds, String opponentName) {
         this.gameMode = mode;
         this.totalRounds = rounds;
         this.currentRound = 0;
@@ -32,7 +49,21 @@ public class GameLogic {
         this.gameHistory = new ArrayList<>();
         
         if (mode == GameMode.PVC) {
-            this.aiStrategy = new AIStrategy();
+            if (opponentName != null) {
+                this.opponentName = opponentName;
+                this.pendingStrategy = AIModelStore.load(opponentName);
+            } else {
+                this.aiStrategy = new AIStrategy();
+            }
+        }
+    }
+    
+    /**
+     * Finish the game: save what the AI learned about the player
+     */
+    public void endGame() {
+        if (aiStrategy != null && opponentName != null) {
+            AIModelStore.saveAsync(opponentName, aiStrategy);
         }
     }
     
@@ -41,6 +72,7 @@ public class GameLogic {
      */
     public void startNewRound() {
         currentRound++;
+        roundStartTime = System.currentTimeMillis();
         player1Move = null;
         player2Move = null;
         player1Cheating = false;
@@ -56,18 +88,24 @@ public class GameLogic {
         if (player1Move == null || player2Move == null) {
             System.out.println("Missing moves - Player 1: " + player1Move + ", Player 2: " + player2Move);
             // Handle case where one or both players didn't make a move
+            GameResult missedResult;
             if (player1Move == null && player2Move == null) {
                 System.out.println("Both players missed - draw");
-                return GameResult.DRAW;
+                missedResult = GameResult.DRAW;
             } else if (player1Move == null) {
                 System.out.println("Player 1 missed - player 2 wins");
                 player2Score++;
-                return GameResult.LOSE;
+                missedResult = GameResult.LOSE;
             } else {
                 System.out.println("Player 2 missed - player 1 wins");
                 player1Score++;
-                return GameResult.WIN;
+                missedResult = GameResult.WIN;
             }
+            
+            // Keep missed rounds in the history so stored games have every round
+            gameHistory.add(new RoundResult(player1Move, player2Move, missedResult));
+            recordRoundDuration();
+            return missedResult;
         }
         
         GameResult result = player1Move.compare(player2Move);
@@ -92,9 +130,10 @@ public class GameLogic {
         // Record the round for history and AI learning
         RoundResult roundResult = new RoundResult(player1Move, player2Move, result);
         gameHistory.add(roundResult);
+        recordRoundDuration();
         
         // Update AI strategy if playing against computer
-        if (gameMode == GameMode.PVC && aiStrategy != null) {
+        if (gameMode == GameMode.PVC && getAIStrategy() != null) {
             aiStrategy.learnFromRound(player1Move, player2Move, result);
         }
         
@@ -105,13 +144,45 @@ public class GameLogic {
      * Get computer move using AI strategy
      */
     public Move getComputerMove() {
-        if (aiStrategy != null) {
+        if (getAIStrategy() != null) {
             return aiStrategy.getNextMove(gameHistory);
         } else {
             return Move.getRandomMove();
         }
     }
     
+    /**
+     * Get how long each finished round took, in milliseconds
+     */
+    public long[] getRoundDurations() {
+        long[] durations = new long[roundDurations.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = roundDurations.get(i);
+        }
+        return durations;
+    }
+    
+    private void recordRoundDuration() {
+        roundDurations.add(System.currentTimeMillis() - roundStartTime);
+    }
+    
+    /**
+     * The AI strategy, waiting for the background load if it is still running
+     * (it normally finished during the first countdown)
+     */
+    private AIStrategy getAIStrategy() {
+        if (aiStrategy == null && pendingStrategy != null) {
+            try {
+                aiStrategy = pendingStrategy.get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Error loading AI model: " + e.getMessage());
+                aiStrategy = new AIStrategy();
+            }
+            pendingStrategy = null;
+        }
+        return aiStrategy;
+    }
+    
     /**
      * Determine the overall game winner
      */
@@ -154,6 +225,13 @@ public class GameLogic {
         return new GameStatistics(gameHistory, player1Score, player2Score, gameMode);
     }
     
+    /**
+     * Get the rounds played so far, in order
+     */
+    public List<RoundResult> getRoundResults() {
+        return Collections.unmodifiableList(gameHistory);
+    }
+    
     // Getters and Setters
     public GameMode getGameMode() { return gameMode; }
     public int getCurrentRound() { return currentRound; }
@@ -173,8 +251,23 @@ public class GameLogic {
     public boolean isPlayer2Cheating() { return player2Cheating; }
     public void setPlayer2Cheating(boolean cheating) { this.player2Cheating = cheating; }
     
-    public void addWinToPlayer1() { this.player1Score++; }
-    public void addWinToPlayer2() { this.player2Score++; }
+    // Forfeited rounds (cheating) are recorded without moves
+    public void addWinToPlayer1() {
+        this.player1Score++;
+        gameHistory.add(new RoundResult(null, null, GameResult.WIN));
+        recordRoundDuration();
+    }
+    
+    public void addWinToPlayer2() {
+        this.player2Score++;
+        gameHistory.add(new RoundResult(null, null, GameResult.LOSE));
+        recordRoundDuration();
+    }
+    
+    public void addDraw() {
+        gameHistory.add(new RoundResult(null, null, GameResult.DRAW));
+        recordRoundDuration();
+    }
 }
 
 /**
@@ -187,6 +280,7 @@ class AIStrategy {
     private Random random;
     
     private static final int LEARNING_WINDOW = 5; // Consider last 5 moves for pattern detection
+    private static final int MAX_FREQUENCY_TOTAL = 1000; // Halve counts past this so old habits fade
     
     public AIStrategy() {
         this.playerMoveFrequency = new HashMap<>();
@@ -206,6 +300,7 @@ class AIStrategy {
         if (playerMove != null) {
             // Update frequency count
             playerMoveFrequency.put(playerMove, playerMoveFrequency.get(playerMove) + 1);
+            decayFrequencies();
             
             // Add to recent moves (keep only last LEARNING_WINDOW moves)
             recentPlayerMoves.add(playerMove);
@@ -219,14 +314,15 @@ class AIStrategy {
      * Get the next move for the computer
      */
     public Move getNextMove(List<RoundResult> gameHistory) {
-        if (gameHistory.isEmpty()) {
-            // First round - random move
+        // Moves remembered from earlier games count as progress too
+        int rounds = Math.max(gameHistory.size(), recentPlayerMoves.size());
+        
+        if (rounds == 0) {
+            // First round against an unknown player - random move
             return Move.getRandomMove();
         }
         
         // Use different strategies based on game progress
-        int rounds = gameHistory.size();
-        
         if (rounds < 3) {
             // Early game - mostly random with slight frequency bias
             return getRandomWithBias();
@@ -236,6 +332,48 @@ class AIStrategy {
         }
     }
     
+    /**
+     * Write the learned state: move frequencies and the recent move window
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        for (Move move : Move.values()) {
+            out.writeInt(playerMoveFrequency.get(move));
+        }
+        out.writeByte(recentPlayerMoves.size());
+        for (Move move : recentPlayerMoves) {
+            out.writeByte(move.ordinal());
+        }
+    }
+    
+    /**
+     * Read a state written by writeTo
+     */
+    public static AIStrategy readFrom(DataInputStream in) throws IOException {
+        AIStrategy strategy = new AIStrategy();
+        Move[] moves = Move.values();
+        for (Move move : moves) {
+            strategy.playerMoveFrequency.put(move, Math.max(0, in.readInt()));
+        }
+        int recent = Math.min(in.readUnsignedByte(), LEARNING_WINDOW);
+        for (int i = 0; i < recent; i++) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal >= moves.length) throw new IOException("Bad move code " + ordinal);
+            strategy.recentPlayerMoves.add(moves[ordinal]);
+        }
+        strategy.decayFrequencies();
+        return strategy;
+    }
+    
+    private void decayFrequencies() {
+        int total = 0;
+        for (int count : playerMoveFrequency.values()) {
+            total += count;
+        }
+        if (total > MAX_FREQUENCY_TOTAL) {
+            playerMoveFrequency.replaceAll((move, count) -> count / 2);
+        }
+    }
+    
     /**
      * Get a random move with slight bias towards countering frequent player moves
      */
@@ -4,6 +4,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -251,7 +252,8 @@ public class GamePanel extends JPanel implements KeyListener {
      * Start a new game with specified mode and rounds
      */
     public void startNewGame(GameMode mode, int rounds) {
-        gameLogic = new GameLogic(mode, rounds);
+        // Against the computer, start loading the AI model for this player
+        gameLogic = new GameLogic(mode, rounds, mode == GameMode.PVC ? PlayerManager.getPlayer1Name() : null);
         gameActive = true;
         gameStartTime = System.currentTimeMillis(); // Record start time
         updateGameUI();
@@ -303,7 +305,12 @@ public class GamePanel extends JPanel implements KeyListener {
             System.out.println("Focus requested for game panel");
         });
         
-        SoundManager.playSound(Constants.SOUND_COUNTDOWN);
+        // The whole countdown is scheduled on the mixer clock at once, one beep per
+        // label change and then "go", so the sounds cannot drift from each other
+        String[] countdownSounds = new String[Constants.COUNTDOWN_SECONDS + 1];
+        Arrays.fill(countdownSounds, Constants.SOUND_COUNTDOWN);
+        countdownSounds[Constants.COUNTDOWN_SECONDS] = Constants.SOUND_GO;
+        SoundManager.playSoundSequence(countdownSounds, Constants.COUNTDOWN_TIMER_DELAY);
         
         countdownTimer = new Timer(Constants.COUNTDOWN_TIMER_DELAY, new ActionListener() {
             @Override
@@ -311,11 +318,9 @@ public class GamePanel extends JPanel implements KeyListener {
                 countdown--;
                 if (countdown > 0) {
                     countdownLabel.setText(String.valueOf(countdown));
-                    SoundManager.playSound(Constants.SOUND_COUNTDOWN);
                 } else {
                     countdownLabel.setText("GO!");
                     countdownLabel.setForeground(Constants.WIN_COLOR);
-                    SoundManager.playSound(Constants.SOUND_GO);
                     
                     Timer finalTimer = new Timer(Constants.FINISH_ROUND_DELAY, ev -> {
                         finishRound();
@@ -387,6 +392,7 @@ public class GamePanel extends JPanel implements KeyListener {
         if (player1Cheated && player2Cheated) {
             resultLabel.setText(Constants.BOTH_CHEATED);
             resultLabel.setForeground(Constants.CHEAT_COLOR);
+            gameLogic.addDraw();
         } else if (player1Cheated) {
             resultLabel.setText(Constants.PLAYER1_CHEATED);
             resultLabel.setForeground(Constants.CHEAT_COLOR);
@@ -504,6 +510,7 @@ public class GamePanel extends JPanel implements KeyListener {
         
         // Save game to history
         saveGameToHistory(gameDuration);
+        gameLogic.endGame();
         
         String winner = getDetailedGameWinner();
         countdownLabel.setText(Constants.GAME_OVER);
@@ -560,20 +567,18 @@ public class GamePanel extends JPanel implements KeyListener {
             int rounds = gameLogic.getTotalRounds();
             int player1Score = gameLogic.getPlayer1Score();
             int player2Score = gameLogic.getPlayer2Score();
-            String winner = getDetailedGameWinner();
             
             // Save to game history
-            GameHistory.addGameRecord(mode, rounds, player1Score, player2Score, winner, durationMs);
-            
-            // Update player statistics
-            String player1Name = PlayerManager.getPlayer1Name();
-            boolean player1Won = player1Score > player2Score;
-            PlayerManager.updatePlayerStats(player1Name, mode, player1Won, rounds);
+            GameHistory.addGameRecord(mode, rounds, player1Score, player2Score,
+                PlayerManager.getPlayer1Name(), PlayerManager.getPlayer2Name(), durationMs,
+                PackedRounds.encode(gameLogic.getRoundResults()), gameLogic.getRoundDurations());
             
+            // Update player statistics and ratings
+            PlayerManager.recordGame(mode, PlayerManager.getPlayer1Name(), PlayerManager.getPlayer2Name(),
+                GameOutcome.fromScores(player1Score, player2Score), rounds);
             if (mode == GameMode.PVP) {
-                String player2Name = PlayerManager.getPlayer2Name();
-                boolean player2Won = player2Score > player1Score;
-                PlayerManager.updatePlayerStats(player2Name, mode, player2Won, rounds);
+                HeadToHead.recordGame(PlayerManager.getPlayer1Name(), PlayerManager.getPlayer2Name(),
+                    GameOutcome.fromScores(player1Score, player2Score));
             }
             
         } catch (Exception e) {
@@ -608,6 +613,7 @@ public class GamePanel extends JPanel implements KeyListener {
         
         if (countdownTimer != null && countdownTimer.isRunning()) {
             countdownTimer.stop();
+            SoundManager.stopAllSounds(); // Drop the countdown beeps still scheduled
         }
         
         // Reset UI to initial state
@@ -0,0 +1,310 @@
+import java.io.*;
+import java.util.*;
+
+/**
+ * Head To Head - Who beat whom, for every pair of named players that met in PvP
+ * Players get small int ids and each pair is one slot in an open-addressing
+ * table keyed by a long (both ids packed together), with the counters kept in
+ * parallel int arrays. Only pairs that actually played take space, a pair is
+ * looked up in O(1) and a player's rivals are read from a per-player list of
+ * opponents in O(degree). Each game appends the pair's new totals to a record log
+ * as (name A, name B, A's wins, B's wins, ties): ids are handed out in log order,
+ * so which of the two is the lower id can change after a compaction
+ */
+class HeadToHead {
+    private static final String HEAD_TO_HEAD_LOG = "head_to_head.log";
+    private static final RecordLog log = new RecordLog(new File(HEAD_TO_HEAD_LOG));
+    private static final long EMPTY = -1L;
+
+    // Player ids
+    private static final Map<String, Integer> playerIds = new HashMap<>();
+    private static final List<String> names = new ArrayList<>();
+
+    // Pair table: key = lower id << 32 | higher id, counters seen from the lower id
+    private static long[] keys = emptyKeys(64);
+    private static int[] lowerWins = new int[64];
+    private static int[] higherWins = new int[64];
+    private static int[] ties = new int[64];
+    private static int pairCount;
+
+    // Opponent ids of each player, by player id
+    private static int[][] opponents = new int[64][];
+    private static int[] opponentCounts = new int[64];
+
+    /**
+     * Load the stored totals
+     */
+    public static synchronized void initialize() {
+        clearMemory();
+        if (!log.getFile().exists()) return;
+
+        try {
+            // Later records for the same pair replace earlier ones
+            log.replay(payload -> {
+                try {
+                    DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+                    int playerA = playerId(in.readUTF());
+                    int playerB = playerId(in.readUTF());
+                    int winsA = in.readInt();
+                    int winsB = in.readInt();
+                    int slot = slotFor(playerA, playerB);
+                    lowerWins[slot] = playerA < playerB ? winsA : winsB;
+                    higherWins[slot] = playerA < playerB ? winsB : winsA;
+                    ties[slot] = in.readInt();
+                } catch (IOException e) {
+                    System.err.println("Skipping unreadable head-to-head record: " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error loading head-to-head records: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count a finished PvP game
+     */
+    public static synchronized void recordGame(String player1Name, String player2Name, GameOutcome outcome) {
+        if (player1Name.equals(player2Name)) return;
+
+        int player1 = playerId(player1Name);
+        int player2 = playerId(player2Name);
+        int slot = slotFor(player1, player2);
+        boolean player1Lower = player1 < player2;
+        switch (outcome) {
+            case PLAYER1_WIN:
+                if (player1Lower) lowerWins[slot]++; else higherWins[slot]++;
+                break;
+            case PLAYER2_WIN:
+                if (player1Lower) higherWins[slot]++; else lowerWins[slot]++;
+                break;
+            default:
+                ties[slot]++;
+        }
+
+        try {
+            log.append(encode(slot));
+        } catch (IOException e) {
+            System.err.println("Error saving head-to-head record: " + e.getMessage());
+        }
+        // Compact once superseded records clearly outnumber live pairs
+        if (log.getRecordCount() > pairCount * 2 + 64) {
+            saveAll();
+        }
+    }
+
+    /**
+     * A player's record against one opponent (all zero if they never met)
+     */
+    public static synchronized Rivalry get(String playerName, String opponentName) {
+        Integer player = playerIds.get(playerName);
+        Integer opponent = playerIds.get(opponentName);
+        if (player == null || opponent == null) {
+            return new Rivalry(playerName, opponentName, 0, 0, 0);
+        }
+        int slot = find(pairKey(player, opponent));
+        if (slot < 0) {
+            return new Rivalry(playerName, opponentName, 0, 0, 0);
+        }
+        return rivalry(player, opponent, slot);
+    }
+
+    /**
+     * A player's record against everyone they met, most games first
+     */
+    public static synchronized List<Rivalry> getRivalries(String playerName) {
+        Integer player = playerIds.get(playerName);
+        if (player == null) return new ArrayList<>();
+
+        List<Rivalry> rivalries = new ArrayList<>(opponentCounts[player]);
+        for (int i = 0; i < opponentCounts[player]; i++) {
+            int opponent = opponents[player][i];
+            rivalries.add(rivalry(player, opponent, find(pairKey(player, opponent))));
+        }
+        rivalries.sort(Comparator.comparingInt(Rivalry::getGames).reversed());
+        return rivalries;
+    }
+
+    /**
+     * Remove all records and the log file
+     */
+    public static synchronized void clear() {
+        clearMemory();
+        saveAll();
+    }
+
+    private static Rivalry rivalry(int player, int opponent, int slot) {
+        boolean lower = player < opponent;
+        return new Rivalry(names.get(player), names.get(opponent),
+            lower ? lowerWins[slot] : higherWins[slot],
+            lower ? higherWins[slot] : lowerWins[slot],
+            ties[slot]);
+    }
+
+    private static int playerId(String name) {
+        Integer id = playerIds.get(name);
+        if (id != null) return id;
+
+        id = names.size();
+        playerIds.put(name, id);
+        names.add(name);
+        if (id == opponentCounts.length) {
+            opponents = Arrays.copyOf(opponents, id * 2);
+            opponentCounts = Arrays.copyOf(opponentCounts, id * 2);
+        }
+        return id;
+    }
+
+    /**
+     * Slot of a pair, adding it (and linking both players) if it is new
+     */
+    private static int slotFor(int player1, int player2) {
+        long key = pairKey(player1, player2);
+        int slot = find(key);
+        if (slot >= 0) return slot;
+
+        if ((pairCount + 1) * 4 > keys.length * 3) {
+            grow();
+        }
+        slot = probe(keys, key);
+        keys[slot] = key;
+        pairCount++;
+        addOpponent(player1, player2);
+        addOpponent(player2, player1);
+        return slot;
+    }
+
+    private static int find(long key) {
+        int slot = probe(keys, key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    /**
+     * Slot holding the key, or the empty slot where it would go (linear probing)
+     */
+    private static int probe(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 32) & mask;
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void grow() {
+        long[] oldKeys = keys;
+        int[] oldLowerWins = lowerWins;
+        int[] oldHigherWins = higherWins;
+        int[] oldTies = ties;
+
+        keys = emptyKeys(oldKeys.length * 2);
+        lowerWins = new int[keys.length];
+        higherWins = new int[keys.length];
+        ties = new int[keys.length];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = probe(keys, oldKeys[i]);
+            keys[slot] = oldKeys[i];
+            lowerWins[slot] = oldLowerWins[i];
+            higherWins[slot] = oldHigherWins[i];
+            ties[slot] = oldTies[i];
+        }
+    }
+
+    private static void addOpponent(int player, int opponent) {
+        int[] list = opponents[player];
+        if (list == null) {
+            list = opponents[player] = new int[4];
+        } else if (opponentCounts[player] == list.length) {
+            list = opponents[player] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[opponentCounts[player]++] = opponent;
+    }
+
+    private static long pairKey(int player1, int player2) {
+        return (long) Math.min(player1, player2) << 32 | Math.max(player1, player2);
+    }
+
+    private static long[] emptyKeys(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+
+    /**
+     * A pair's record; each win count follows the name it belongs to
+     */
+    private static byte[] encode(int slot) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeUTF(names.get((int) (keys[slot] >>> 32))); // Name A: the lower id
+            out.writeUTF(names.get((int) keys[slot]));
+            out.writeInt(lowerWins[slot]); // A's wins
+            out.writeInt(higherWins[slot]);
+            out.writeInt(ties[slot]);
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Cannot happen for an in-memory stream
+        }
+    }
+
+    /**
+     * Rewrite the log with one record per pair
+     */
+    private static void saveAll() {
+        List<byte[]> records = new ArrayList<>(pairCount);
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                records.add(encode(slot));
+            }
+        }
+        try {
+            log.rewrite(records);
+        } catch (IOException e) {
+            System.err.println("Error saving head-to-head records: " + e.getMessage());
+        }
+    }
+
+    private static void clearMemory() {
+        playerIds.clear();
+        names.clear();
+        keys = emptyKeys(64);
+        lowerWins = new int[64];
+        higherWins = new int[64];
+        ties = new int[64];
+        pairCount = 0;
+        opponents = new int[64][];
+        opponentCounts = new int[64];
+    }
+
+    /**
+     * One player's record against one opponent
+     */
+    public static class Rivalry {
+        private final String player;
+        private final String opponent;
+        private final int wins;
+        private final int losses;
+        private final int ties;
+
+        Rivalry(String player, String opponent, int wins, int losses, int ties) {
+            this.player = player;
+            this.opponent = opponent;
+            this.wins = wins;
+            this.losses = losses;
+            this.ties = ties;
+        }
+
+        public String getPlayer() { return player; }
+        public String getOpponent() { return opponent; }
+        public int getWins() { return wins; }
+        public int getLosses() { return losses; }
+        public int getTies() { return ties; }
+        public int getGames() { return wins + losses + ties; }
+
+        @Override
+        public String toString() {
+            return wins + "-" + losses + "-" + ties;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.NavigableSet;
+import java.util.function.IntConsumer;
+
+/**
+ * History Exporter - Streams history segments straight into an export file
+ * Records are written as they are read, one segment at a time, so an export
+ * never holds more than a single record (or one columnar row group) in memory
+ */
+class HistoryExporter {
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    private static final int ROW_GROUP_SIZE = 4096;
+    private static final int COLUMNAR_MAGIC = 0x52505343; // "RPSC"
+    private static final String CSV_HEADER = "Date,Time,GameMode,Rounds,Player1Score,Player2Score,Winner,Duration,Player1,Player2,Moves";
+
+    private final HistorySegmentStore store;
+
+    public HistoryExporter(HistorySegmentStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Export all records matching the filter
+     * @param progress receives 0-100 as segments are completed (may be null)
+     * @return number of records written
+     */
+    public int export(File target, ExportFormat format, HistoryFilter filter,
+                      IntConsumer progress) throws IOException {
+        NavigableSet<String> days = store.daysInRange(filter.getFrom(), filter.getTo());
+
+        try (FileChannel channel = FileChannel.open(Paths.get(target.getAbsolutePath()),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE)) {
+
+            RecordSink sink = createSink(format, out);
+            int done = 0;
+
+            for (String day : days) {
+                // A day whose rollup has nothing for the requested mode is skipped, but still counts as done
+                if (filter.mayMatchDay(store.getRollup(day))) {
+                    store.forEachInSegment(day, filter.getFrom(), filter.getTo(), record -> {
+                        if (filter.matches(record)) {
+                            sink.write(record);
+                        }
+                    });
+                }
+
+                done++;
+                if (progress != null) {
+                    progress.accept(done * 100 / days.size());
+                }
+            }
+
+            sink.finish();
+            if (progress != null) {
+                progress.accept(100);
+            }
+            return sink.getCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private RecordSink createSink(ExportFormat format, OutputStream out) throws IOException {
+        switch (format) {
+            case JSON_LINES: return new JsonLinesSink(out);
+            case COLUMNAR: return new ColumnarSink(out);
+            case CSV:
+            default: return new CsvSink(out);
+        }
+    }
+
+    /**
+     * Destination for exported records
+     */
+    private abstract static class RecordSink {
+        private int count;
+
+        void write(GameRecord record) {
+            try {
+                writeRecord(record);
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        int getCount() { return count; }
+
+        abstract void writeRecord(GameRecord record) throws IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    /**
+     * Readable CSV for spreadsheets: winner and player names as text and one
+     * "Rock vs Paper" entry per round, not the internal segment line
+     */
+    private static class CsvSink extends RecordSink {
+        private final Writer writer;
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+
+        CsvSink(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void writeRecord(GameRecord record) throws IOException {
+            String winner;
+            switch (record.getOutcome()) {
+                case PLAYER1_WIN: winner = record.getPlayer1Name(); break;
+                case PLAYER2_WIN: winner = record.getPlayer2Name(); break;
+                default: winner = "Tie";
+            }
+
+            writer.write(dateFormat.format(record.getDate()) + ","
+                + timeFormat.format(record.getDate()) + ","
+                + record.getGameMode() + ","
+                + record.getRounds() + ","
+                + record.getPlayer1Score() + ","
+                + record.getPlayer2Score() + ","
+                + quote(winner) + ","
+                + record.getDurationMs() + ","
+                + quote(record.getPlayer1Name()) + ","
+                + quote(record.getPlayer2Name()) + ","
+                + quote(describeMoves(record.getRoundMoves())) + "\n");
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * Rounds as "Rock vs Paper; Scissors vs -" (- for a missed or forfeited move)
+         */
+        private static String describeMoves(PackedRounds rounds) {
+            StringBuilder moves = new StringBuilder();
+            for (int round = 0; round < rounds.getRoundCount(); round++) {
+                if (round > 0) moves.append("; ");
+                moves.append(moveName(rounds.getPlayer1Move(round)))
+                    .append(" vs ")
+                    .append(moveName(rounds.getPlayer2Move(round)));
+            }
+            return moves.toString();
+        }
+
+        private static String moveName(Move move) {
+            return move != null ? move.getName() : "-";
+        }
+
+        /**
+         * Quote a field if it holds a comma, quote or line break (RFC 4180)
+         */
+        private static String quote(String field) {
+            if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+                return field;
+            }
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    private static class JsonLinesSink extends RecordSink {
+        private final Writer writer;
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+
+        JsonLinesSink(OutputStream out) {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        void writeRecord(GameRecord record) throws IOException {
+            writer.write("{\"date\":\"" + dateFormat.format(record.getDate()) + "\""
+                + ",\"mode\":\"" + record.getGameMode().name() + "\""
+                + ",\"rounds\":" + record.getRounds()
+                + ",\"player1Score\":" + record.getPlayer1Score()
+                + ",\"player2Score\":" + record.getPlayer2Score()
+                + ",\"outcome\":\"" + record.getOutcome().name() + "\""
+                + ",\"player1\":\"" + escapeJson(record.getPlayer1Name()) + "\""
+                + ",\"player2\":\"" + escapeJson(record.getPlayer2Name()) + "\""
+                + ",\"durationMs\":" + record.getDurationMs()
+                + ",\"moves\":\"" + record.getRoundMoves().toToken() + "\"}\n");
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escapeJson(String text) {
+            StringBuilder escaped = new StringBuilder(text.length());
+            for (char c : text.toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    escaped.append('\\').append(c);
+                } else if (c < 0x20) {
+                    escaped.append(String.format("\\u%04x", (int) c));
+                } else {
+                    escaped.append(c);
+                }
+            }
+            return escaped.toString();
+        }
+    }
+
+    /**
+     * Binary column layout: a header, then row groups of up to ROW_GROUP_SIZE
+     * records where each column is written contiguously
+     */
+    private static class ColumnarSink extends RecordSink {
+        private final DataOutputStream out;
+        private final long[] timestamps = new long[ROW_GROUP_SIZE];
+        private final byte[] modes = new byte[ROW_GROUP_SIZE];
+        private final int[] rounds = new int[ROW_GROUP_SIZE];
+        private final int[] player1Scores = new int[ROW_GROUP_SIZE];
+        private final int[] player2Scores = new int[ROW_GROUP_SIZE];
+        private final byte[] outcomes = new byte[ROW_GROUP_SIZE];
+        private final String[] player1Names = new String[ROW_GROUP_SIZE];
+        private final String[] player2Names = new String[ROW_GROUP_SIZE];
+        private final long[] durations = new long[ROW_GROUP_SIZE];
+        private final PackedRounds[] roundMoves = new PackedRounds[ROW_GROUP_SIZE];
+        private int size;
+
+        ColumnarSink(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.out.writeInt(COLUMNAR_MAGIC);
+            this.out.writeByte(3); // Format version
+        }
+
+        @Override
+        void writeRecord(GameRecord record) throws IOException {
+            timestamps[size] = record.getDate().getTime();
+            modes[size] = (byte) record.getGameMode().ordinal();
+            rounds[size] = record.getRounds();
+            player1Scores[size] = record.getPlayer1Score();
+            player2Scores[size] = record.getPlayer2Score();
+            outcomes[size] = (byte) record.getOutcome().getCode();
+            player1Names[size] = record.getPlayer1Name();
+            player2Names[size] = record.getPlayer2Name();
+            durations[size] = record.getDurationMs();
+            roundMoves[size] = record.getRoundMoves();
+            size++;
+
+            if (size == ROW_GROUP_SIZE) {
+                flushRowGroup();
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            flushRowGroup();
+            out.writeInt(0); // Empty row group marks the end
+            out.flush();
+        }
+
+        private void flushRowGroup() throws IOException {
+            if (size == 0) return;
+
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) out.writeLong(timestamps[i]);
+            out.write(modes, 0, size);
+            for (int i = 0; i < size; i++) out.writeInt(rounds[i]);
+            for (int i = 0; i < size; i++) out.writeInt(player1Scores[i]);
+            for (int i = 0; i < size; i++) out.writeInt(player2Scores[i]);
+            out.write(outcomes, 0, size);
+            for (int i = 0; i < size; i++) out.writeUTF(player1Names[i]);
+            for (int i = 0; i < size; i++) out.writeUTF(player2Names[i]);
+            for (int i = 0; i < size; i++) out.writeLong(durations[i]);
+            for (int i = 0; i < size; i++) {
+                out.writeShort(roundMoves[i].getRoundCount());
+                out.write(roundMoves[i].getData());
+            }
+            size = 0;
+        }
+    }
+}
+
+/**
+ * Supported history export formats, chosen by file extension
+ */
+enum ExportFormat {
+    CSV("csv", "CSV"),
+    JSON_LINES("jsonl", "JSON Lines"),
+    COLUMNAR("rpsc", "Columnar (binary)");
+
+    private final String extension;
+    private final String displayName;
+
+    ExportFormat(String extension, String displayName) {
+        this.extension = extension;
+        this.displayName = displayName;
+    }
+
+    public String getExtension() { return extension; }
+    public String getDisplayName() { return displayName; }
+
+    /**
+     * Pick the format matching a file name, defaulting to CSV
+     */
+    public static ExportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase();
+        for (ExportFormat format : values()) {
+            if (lower.endsWith("." + format.extension)) {
+                return format;
+            }
+        }
+        return CSV;
+    }
+}
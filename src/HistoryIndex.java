@@ -0,0 +1,364 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * History Index - Secondary indexes over every record in the history segments
+ * Keeps timestamps in a sorted long[] (with the segment day and byte offset of
+ * each record) plus one posting list of positions per game mode. Date ranges
+ * become binary searches and mode views walk their posting list directly.
+ * Entries are appended to a record log as games are saved, so the index is
+ * loaded at startup instead of being rebuilt from the segments.
+ * Entries stay in segment order and keep their real timestamps; if the clock
+ * stepped back, the few entries older than one before them are listed apart
+ * and date ranges widen to cover them, so callers check the real dates
+ */
+class HistoryIndex {
+    private static final int ENTRY_SIZE = 21; // timestamp, offset, day, mode
+
+    private final RecordLog log;
+
+    private long[] timestamps = new long[1024];
+    private long[] maxTimestamps = new long[1024]; // Running maximum, non-decreasing for binary searches
+    private long[] offsets = new long[1024];
+    private int[] days = new int[1024]; // Epoch day of the segment holding the record
+    private byte[] modes = new byte[1024];
+    private int size;
+
+    private int[] outOfOrder = new int[16]; // Positions older than an earlier entry, ascending
+    private int outOfOrderCount;
+
+    private int[][] postings = new int[GameMode.values().length][64];
+    private int[] postingSizes = new int[GameMode.values().length];
+
+    public HistoryIndex(File file) {
+        this.log = new RecordLog(file);
+    }
+
+    /**
+     * Load the persisted index
+     * @return false if there is no index file yet
+     */
+    public boolean load() {
+        clearMemory();
+        if (!log.getFile().exists()) return false;
+
+        try {
+            log.replay(payload -> {
+                if (payload.length != ENTRY_SIZE) return;
+                ByteBuffer entry = ByteBuffer.wrap(payload);
+                addEntry(entry.getLong(), entry.getLong(), entry.getInt(), entry.get());
+            });
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading history index: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rebuild the index from scratch by scanning every segment
+     */
+    public void rebuild(HistorySegmentStore store) {
+        clearMemory();
+        for (String day : store.daysInRange(null, null)) {
+            indexSegment(store, day, 0, false, false);
+        }
+        persistAll();
+    }
+
+    /**
+     * Bring a loaded index in line with the segments after a crash: drop entries
+     * past the end of a recovered segment and index lines that never made it in
+     */
+    public void catchUp(HistorySegmentStore store) {
+        if (size == 0) {
+            if (!store.isEmpty()) rebuild(store);
+            return;
+        }
+
+        String lastDay = dayKey(days[size - 1]);
+        long segmentLength = store.getSegmentLength(lastDay);
+        int valid = size;
+        while (valid > 0 && days[valid - 1] == days[size - 1] && offsets[valid - 1] >= segmentLength) {
+            valid--;
+        }
+        if (valid < size) {
+            truncateTo(valid);
+            persistAll();
+        }
+
+        // Lines after the last indexed one in its segment, then any newer segments
+        if (size > 0 && dayKey(days[size - 1]).equals(lastDay)) {
+            indexSegment(store, lastDay, offsets[size - 1], true, true);
+        } else {
+            indexSegment(store, lastDay, 0, false, true);
+        }
+        for (String day : store.daysInRange(null, null).tailSet(lastDay, false)) {
+            indexSegment(store, day, 0, false, true);
+        }
+    }
+
+    /**
+     * Index a newly appended record
+     */
+    public void add(GameRecord record, String day, long offset) {
+        long timestamp = record.getDate().getTime();
+        addEntry(timestamp, offset, toEpochDay(day), (byte) record.getGameMode().ordinal());
+        try {
+            log.append(encode(timestamp, offset, toEpochDay(day), (byte) record.getGameMode().ordinal()));
+        } catch (IOException e) {
+            System.err.println("Error saving history index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drop all entries for segments older than the given day (after retention)
+     */
+    public void dropBefore(String firstDay) {
+        int firstEpochDay = toEpochDay(firstDay);
+        int drop = 0;
+        while (drop < size && days[drop] < firstEpochDay) {
+            drop++;
+        }
+        if (drop == 0) return;
+
+        int remaining = size - drop;
+        System.arraycopy(timestamps, drop, timestamps, 0, remaining);
+        System.arraycopy(offsets, drop, offsets, 0, remaining);
+        System.arraycopy(days, drop, days, 0, remaining);
+        System.arraycopy(modes, drop, modes, 0, remaining);
+        truncateTo(remaining);
+        persistAll();
+    }
+
+    /**
+     * Remove every entry and the index file
+     */
+    public void clear() {
+        clearMemory();
+        persistAll();
+    }
+
+    public int size() { return size; }
+
+    /**
+     * First position that can hold a timestamp at or after the given time;
+     * no earlier entry does
+     */
+    public int lowerBound(long timestamp) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxTimestamps[mid] < timestamp) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * Position after the last entry with a timestamp at or before the given time
+     * If the clock stepped back, entries before it may be later than the time
+     */
+    public int upperBound(long timestamp) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxTimestamps[mid] <= timestamp) low = mid + 1; else high = mid;
+        }
+
+        // Out-of-order entries further on can still be inside the range
+        for (int i = outOfOrderCount - 1; i >= 0 && outOfOrder[i] >= low; i--) {
+            if (timestamps[outOfOrder[i]] <= timestamp) return outOfOrder[i] + 1;
+        }
+        return low;
+    }
+
+    /**
+     * Exact number of records of one mode with a timestamp between two times (inclusive)
+     * Counted from the posting list in O(log n) unless out-of-order entries fall
+     * inside the range, in which case those positions are checked one by one
+     */
+    public int countBetween(GameMode mode, long from, long to) {
+        int fromPosition = lowerBound(from);
+        int toPosition = upperBound(to);
+        if (!hasOutOfOrder(fromPosition, toPosition)) {
+            return countInRange(mode, fromPosition, toPosition);
+        }
+
+        int count = 0;
+        for (int position : postingsInRange(mode, fromPosition, toPosition)) {
+            if (timestamps[position] >= from && timestamps[position] <= to) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Positions of one mode's records within [fromPosition, toPosition), in order
+     */
+    public int[] postingsInRange(GameMode mode, int fromPosition, int toPosition) {
+        int[] list = postings[mode.ordinal()];
+        int count = postingSizes[mode.ordinal()];
+        int start = Arrays.binarySearch(list, 0, count, fromPosition);
+        int end = Arrays.binarySearch(list, 0, count, toPosition);
+        start = start < 0 ? -start - 1 : start;
+        end = end < 0 ? -end - 1 : end;
+        return Arrays.copyOfRange(list, start, end);
+    }
+
+    /**
+     * Number of records of one mode between two positions, in O(log n)
+     */
+    public int countInRange(GameMode mode, int fromPosition, int toPosition) {
+        int[] list = postings[mode.ordinal()];
+        int count = postingSizes[mode.ordinal()];
+        int start = Arrays.binarySearch(list, 0, count, fromPosition);
+        int end = Arrays.binarySearch(list, 0, count, toPosition);
+        return (end < 0 ? -end - 1 : end) - (start < 0 ? -start - 1 : start);
+    }
+
+    /**
+     * Index into a mode's posting list of the first entry at or after a position
+     */
+    public int postingLowerBound(GameMode mode, int position) {
+        int index = Arrays.binarySearch(postings[mode.ordinal()], 0, postingSizes[mode.ordinal()], position);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    /**
+     * Position stored at an index of a mode's posting list
+     */
+    public int postingAt(GameMode mode, int index) {
+        return postings[mode.ordinal()][index];
+    }
+
+    /**
+     * First position at or after a segment day and byte offset
+     * Entries are in append order, so (day, offset) is sorted as well
+     */
+    public int positionOf(String day, long offset) {
+        int epochDay = toEpochDay(day);
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < epochDay || (days[mid] == epochDay && offsets[mid] < offset)) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    public long getOffset(int position) { return offsets[position]; }
+    public String getDay(int position) { return dayKey(days[position]); }
+    public int getEpochDay(int position) { return days[position]; }
+
+    private void indexSegment(HistorySegmentStore store, String day, long startOffset,
+                              boolean skipFirst, boolean persist) {
+        int epochDay = toEpochDay(day);
+        List<byte[]> added = new ArrayList<>();
+        store.forEachWithOffset(day, startOffset, (record, offset) -> {
+            if (skipFirst && offset == startOffset) return; // Already indexed
+            long timestamp = record.getDate().getTime();
+            addEntry(timestamp, offset, epochDay, (byte) record.getGameMode().ordinal());
+            added.add(encode(timestamp, offset, epochDay, (byte) record.getGameMode().ordinal()));
+        });
+
+        if (persist && !added.isEmpty()) {
+            try {
+                log.appendAll(added);
+            } catch (IOException e) {
+                System.err.println("Error saving history index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Add an entry in memory with its real timestamp, noting it if it is older
+     * than an earlier entry (the clock stepped back)
+     */
+    private void addEntry(long timestamp, long offset, int epochDay, byte mode) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            maxTimestamps = Arrays.copyOf(maxTimestamps, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            days = Arrays.copyOf(days, capacity);
+            modes = Arrays.copyOf(modes, capacity);
+        }
+
+        timestamps[size] = timestamp;
+        offsets[size] = offset;
+        days[size] = epochDay;
+        modes[size] = mode;
+        addOrdering(size);
+        addPosting(mode, size);
+        size++;
+    }
+
+    private void addOrdering(int position) {
+        long previousMax = position > 0 ? maxTimestamps[position - 1] : Long.MIN_VALUE;
+        maxTimestamps[position] = Math.max(previousMax, timestamps[position]);
+        if (timestamps[position] < previousMax) {
+            if (outOfOrderCount == outOfOrder.length) {
+                outOfOrder = Arrays.copyOf(outOfOrder, outOfOrderCount * 2);
+            }
+            outOfOrder[outOfOrderCount++] = position;
+        }
+    }
+
+    /**
+     * Whether any out-of-order entry lies in [fromPosition, toPosition)
+     */
+    private boolean hasOutOfOrder(int fromPosition, int toPosition) {
+        int index = Arrays.binarySearch(outOfOrder, 0, outOfOrderCount, fromPosition);
+        index = index < 0 ? -index - 1 : index;
+        return index < outOfOrderCount && outOfOrder[index] < toPosition;
+    }
+
+    private void addPosting(int mode, int position) {
+        if (postingSizes[mode] == postings[mode].length) {
+            postings[mode] = Arrays.copyOf(postings[mode], postings[mode].length * 2);
+        }
+        postings[mode][postingSizes[mode]++] = position;
+    }
+
+    private void truncateTo(int newSize) {
+        size = newSize;
+        Arrays.fill(postingSizes, 0);
+        outOfOrderCount = 0;
+        for (int i = 0; i < size; i++) {
+            addOrdering(i);
+            addPosting(modes[i], i);
+        }
+    }
+
+    private void clearMemory() {
+        size = 0;
+        Arrays.fill(postingSizes, 0);
+        outOfOrderCount = 0;
+    }
+
+    private void persistAll() {
+        List<byte[]> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(encode(timestamps[i], offsets[i], days[i], modes[i]));
+        }
+        try {
+            log.rewrite(entries);
+        } catch (IOException e) {
+            System.err.println("Error saving history index: " + e.getMessage());
+        }
+    }
+
+    private static byte[] encode(long timestamp, long offset, int epochDay, byte mode) {
+        return ByteBuffer.allocate(ENTRY_SIZE).putLong(timestamp).putLong(offset).putInt(epochDay).put(mode).array();
+    }
+
+    private static int toEpochDay(String day) {
+        return (int) LocalDate.parse(day).toEpochDay();
+    }
+
+    private static String dayKey(int epochDay) {
+        return LocalDate.ofEpochDay(epochDay).toString();
+    }
+}
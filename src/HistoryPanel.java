@@ -1,9 +1,9 @@
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.text.SimpleDateFormat;
-import java.util.List;
 
 /**
  * History Panel - Display game history and statistics
@@ -17,7 +17,11 @@ public class HistoryPanel extends JPanel {
     private JButton backButton;
     private JButton exportButton;
     private JButton clearButton;
+    private JButton loadMoreButton;
     private JComboBox<String> filterCombo;
+    private HistoryCursor nextCursor;
+    
+    private static final int PAGE_SIZE = 100;
     
     private final String[] columnNames = {
         "Date", "Time", "Mode", "Rounds", "Your Score", "Opponent Score", "Result", "Duration"
@@ -154,7 +158,7 @@ public class HistoryPanel extends JPanel {
         backButton.addActionListener(e -> parent.showMainPage());
         
         // Export button
-        exportButton = new JButton("📤 Export CSV");
+        exportButton = new JButton("📤 Export");
         exportButton.setFont(new Font("Arial", Font.PLAIN, 12));
         exportButton.setPreferredSize(new Dimension(120, 35));
         exportButton.addActionListener(e -> exportHistory());
@@ -172,10 +176,18 @@ public class HistoryPanel extends JPanel {
         refreshButton.setPreferredSize(new Dimension(100, 35));
         refreshButton.addActionListener(e -> refreshHistory());
         
+        // Load more button (history is shown newest first, one page at a time)
+        loadMoreButton = new JButton("⬇ Load More");
+        loadMoreButton.setFont(new Font("Arial", Font.PLAIN, 12));
+        loadMoreButton.setPreferredSize(new Dimension(120, 35));
+        loadMoreButton.addActionListener(e -> loadNextPage());
+        
         panel.add(backButton);
         panel.add(Box.createRigidArea(new Dimension(10, 0)));
         panel.add(refreshButton);
         panel.add(Box.createRigidArea(new Dimension(10, 0)));
+        panel.add(loadMoreButton);
+        panel.add(Box.createRigidArea(new Dimension(10, 0)));
         panel.add(exportButton);
         panel.add(Box.createRigidArea(new Dimension(10, 0)));
         panel.add(clearButton);
@@ -187,17 +199,26 @@ public class HistoryPanel extends JPanel {
      * Refresh the history display
      */
     public void refreshHistory() {
-        // Clear existing data
+        // Clear existing data and start again from the newest page
         tableModel.setRowCount(0);
+        nextCursor = null;
+        loadNextPage();
+    }
+    
+    /**
+     * Append the next page of records matching the selected filter
+     */
+    private void loadNextPage() {
+        boolean recentOnly = "Recent 10".equals(filterCombo.getSelectedItem());
+        HistoryQuery query = new HistoryQuery(getSelectedFilter(), HistoryOrder.NEWEST_FIRST,
+            recentOnly ? 10 : PAGE_SIZE);
         
-        // Get all game records
-        List<GameRecord> records = GameHistory.getAllRecords();
+        HistoryPage page = GameHistory.query(query, nextCursor);
         
-        // Add records to table
         SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
         SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
         
-        for (GameRecord record : records) {
+        for (GameRecord record : page.getRecords()) {
             Object[] row = {
                 dateFormat.format(record.getDate()),
                 timeFormat.format(record.getDate()),
@@ -211,6 +232,9 @@ public class HistoryPanel extends JPanel {
             tableModel.addRow(row);
         }
         
+        nextCursor = recentOnly ? null : page.getNextCursor();
+        loadMoreButton.setEnabled(nextCursor != null);
+        
         // Update statistics
         updateStatistics();
     }
@@ -219,13 +243,10 @@ public class HistoryPanel extends JPanel {
      * Determine the result text for display
      */
     private String determineResult(GameRecord record) {
-        String winner = record.getWinner();
-        if (winner.contains("You") || winner.contains("Player 1")) {
-            return "WIN";
-        } else if (winner.contains("Tie")) {
-            return "TIE";
-        } else {
-            return "LOSS";
+        switch (record.getResult()) {
+            case WIN: return "WIN";
+            case DRAW: return "TIE";
+            default: return "LOSS";
         }
     }
     
@@ -242,6 +263,11 @@ public class HistoryPanel extends JPanel {
             totalGames, totalWins, winRate, tableModel.getRowCount()
         );
         
+        LatencyHistogram durations = GameHistory.getGameDurations(getSelectedMode());
+        if (durations.getCount() > 0) {
+            statsText += " | Duration " + durations.getSummary();
+        }
+        
         statsLabel.setText(statsText);
     }
     
@@ -249,91 +275,85 @@ public class HistoryPanel extends JPanel {
      * Apply selected filter to the table
      */
     private void applyFilter() {
-        String selectedFilter = (String) filterCombo.getSelectedItem();
-        List<GameRecord> records = GameHistory.getAllRecords();
-        
-        // Clear table
-        tableModel.setRowCount(0);
-        
-        // Apply filter
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MM/dd/yyyy");
-        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
-        
-        for (GameRecord record : records) {
-            boolean include = false;
-            
-            switch (selectedFilter) {
-                case "All Games":
-                    include = true;
-                    break;
-                case "Player vs Computer":
-                    include = (record.getGameMode() == GameMode.PVC);
-                    break;
-                case "Player vs Player":
-                    include = (record.getGameMode() == GameMode.PVP);
-                    break;
-                case "Wins Only":
-                    include = (record.getWinner().contains("You") || record.getWinner().contains("Player 1"));
-                    break;
-                case "Recent 10":
-                    // Will be handled after the loop
-                    include = true;
-                    break;
-            }
-            
-            if (include) {
-                Object[] row = {
-                    dateFormat.format(record.getDate()),
-                    timeFormat.format(record.getDate()),
-                    record.getGameMode().toString(),
-                    record.getRounds(),
-                    record.getPlayer1Score(),
-                    record.getPlayer2Score(),
-                    determineResult(record),
-                    record.getFormattedDuration()
-                };
-                tableModel.addRow(row);
-            }
-        }
-        
-        // Handle "Recent 10" filter
-        if (selectedFilter.equals("Recent 10") && tableModel.getRowCount() > 10) {
-            // Keep only the last 10 rows
-            while (tableModel.getRowCount() > 10) {
-                tableModel.removeRow(0);
-            }
+        refreshHistory();
+    }
+    
+    /**
+     * Build the query filter for the selected filter option
+     */
+    private HistoryFilter getSelectedFilter() {
+        if ("Wins Only".equals(filterCombo.getSelectedItem())) {
+            return new HistoryFilter(null, null, null, GameResult.WIN);
         }
-        
-        updateStatistics();
+        return HistoryFilter.forMode(getSelectedMode());
     }
     
     /**
-     * Export history to CSV file
+     * Export history to a file in the background
      */
     private void exportHistory() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Export Game History");
+        for (ExportFormat format : ExportFormat.values()) {
+            fileChooser.addChoosableFileFilter(new FileNameExtensionFilter(
+                format.getDisplayName() + " (*." + format.getExtension() + ")", format.getExtension()));
+        }
         fileChooser.setSelectedFile(new java.io.File("game_history_export.csv"));
         
         int userSelection = fileChooser.showSaveDialog(this);
         
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             java.io.File fileToSave = fileChooser.getSelectedFile();
+            ExportFormat format = ExportFormat.fromFileName(fileToSave.getName());
+            HistoryFilter filter = HistoryFilter.forMode(getSelectedMode());
             
-            if (GameHistory.exportToCSV(fileToSave.getAbsolutePath())) {
-                JOptionPane.showMessageDialog(this, 
-                    "History exported successfully to:\n" + fileToSave.getAbsolutePath(),
-                    "Export Successful", 
-                    JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this,
-                    "Failed to export history. Please try again.",
-                    "Export Failed",
-                    JOptionPane.ERROR_MESSAGE);
-            }
+            ProgressMonitor monitor = new ProgressMonitor(this, "Exporting game history...", null, 0, 100);
+            exportButton.setEnabled(false);
+            
+            SwingWorker<Integer, Void> worker = new SwingWorker<Integer, Void>() {
+                @Override
+                protected Integer doInBackground() throws Exception {
+                    return GameHistory.exportHistory(fileToSave, format, filter, this::setProgress);
+                }
+                
+                @Override
+                protected void done() {
+                    monitor.close();
+                    exportButton.setEnabled(true);
+                    try {
+                        int count = get();
+                        JOptionPane.showMessageDialog(HistoryPanel.this,
+                            count + " games exported successfully to:\n" + fileToSave.getAbsolutePath(),
+                            "Export Successful",
+                            JOptionPane.INFORMATION_MESSAGE);
+                    } catch (Exception e) {
+                        System.err.println("Error exporting history: " + e.getMessage());
+                        JOptionPane.showMessageDialog(HistoryPanel.this,
+                            "Failed to export history. Please try again.",
+                            "Export Failed",
+                            JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            };
+            worker.addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    monitor.setProgress((Integer) e.getNewValue());
+                }
+            });
+            worker.execute();
         }
     }
     
+    /**
+     * Get the game mode selected in the filter, or null for all modes
+     */
+    private GameMode getSelectedMode() {
+        String selectedFilter = (String) filterCombo.getSelectedItem();
+        if ("Player vs Computer".equals(selectedFilter)) return GameMode.PVC;
+        if ("Player vs Player".equals(selectedFilter)) return GameMode.PVP;
+        return null;
+    }
+    
     /**
      * Clear all game history
      */
@@ -0,0 +1,78 @@
+import java.util.List;
+
+/**
+ * History Query - Cursor based paging over the history segments
+ * A page only reads the segment lines it returns (plus any it filters out),
+ * so the cost follows the page size rather than the size of the history
+ */
+class HistoryQuery {
+    private final HistoryFilter filter;
+    private final HistoryOrder order;
+    private final int pageSize;
+
+    public HistoryQuery(HistoryFilter filter, HistoryOrder order, int pageSize) {
+        this.filter = filter;
+        this.order = order;
+        this.pageSize = Math.max(1, pageSize);
+    }
+
+    public HistoryFilter getFilter() { return filter; }
+    public HistoryOrder getOrder() { return order; }
+    public int getPageSize() { return pageSize; }
+}
+
+/**
+ * Direction in which history pages are returned
+ */
+enum HistoryOrder {
+    NEWEST_FIRST,
+    OLDEST_FIRST
+}
+
+/**
+ * Position in the history: a segment day and a byte offset inside it
+ * Newest-first cursors point at the start of the last returned line,
+ * oldest-first cursors just past its end
+ */
+class HistoryCursor {
+    private final String day;
+    private final long position;
+
+    public HistoryCursor(String day, long position) {
+        this.day = day;
+        this.position = position;
+    }
+
+    public String getDay() { return day; }
+    public long getPosition() { return position; }
+
+    /**
+     * Readable form for logs, e.g. "2024-05-01@1830"
+     */
+    @Override
+    public String toString() {
+        return day + "@" + position;
+    }
+}
+
+/**
+ * One page of query results
+ */
+class HistoryPage {
+    private final List<GameRecord> records;
+    private final HistoryCursor nextCursor;
+
+    public HistoryPage(List<GameRecord> records, HistoryCursor nextCursor) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GameRecord> getRecords() { return records; }
+
+    /**
+     * Cursor for the following page, or null when there are no more records
+     */
+    public HistoryCursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
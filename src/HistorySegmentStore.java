@@ -0,0 +1,775 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * History Segment Store - Keeps game history in daily segment files
+ * Older days are rolled up into per-day summaries, compressed into archive
+ * segments once they go cold and dropped after the retention window, so
+ * reads and writes only touch the segments they need. Byte offsets always
+ * refer to the uncompressed lines, so cursors and the index stay valid
+ * when a segment is archived
+ */
+class HistorySegmentStore {
+    private static final String SEGMENT_SUFFIX = ".csv";
+    private static final String ARCHIVE_SUFFIX = ".csv.gz";
+    private static final String ROLLUP_FILE = "rollups.csv";
+    private static final String FORMAT_FILE = "format.txt";
+    private static final int FORMAT_VERSION = 2; // 2: outcome codes and player names
+    private static final int READ_BLOCK_SIZE = 8192;
+
+    private final File directory;
+    private final File rollupFile;
+    private final int retentionDays;
+    private final int archiveDays;
+
+    // Day keys ("yyyy-MM-dd") sort chronologically, so plain string ordering works
+    private final TreeSet<String> segmentDays = new TreeSet<>();
+    private final TreeMap<String, DailyRollup> rollups = new TreeMap<>();
+
+    public HistorySegmentStore(String directoryPath, int retentionDays, int archiveDays) {
+        this.directory = new File(directoryPath);
+        this.rollupFile = new File(directory, ROLLUP_FILE);
+        this.retentionDays = retentionDays;
+        this.archiveDays = archiveDays;
+    }
+
+    /**
+     * Scan the segment directory and load the stored rollups
+     */
+    public synchronized void open() {
+        segmentDays.clear();
+        rollups.clear();
+
+        if (!directory.exists()) {
+            return; // Nothing written yet
+        }
+
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(SEGMENT_SUFFIX) && !name.equals(ROLLUP_FILE)) {
+                    segmentDays.add(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                } else if (name.endsWith(ARCHIVE_SUFFIX)) {
+                    segmentDays.add(name.substring(0, name.length() - ARCHIVE_SUFFIX.length()));
+                }
+            }
+        }
+
+        // A crash while archiving can leave both forms; the plain segment wins
+        for (String day : segmentDays) {
+            if (segmentFile(day).exists()) {
+                archiveFile(day).delete();
+            }
+        }
+
+        // Only the newest segment and the rollup file are ever appended to,
+        // so those are the only places a crash can leave a torn line
+        if (!segmentDays.isEmpty()) {
+            ChecksummedLines.recoverTail(segmentFile(segmentDays.last()));
+        }
+        ChecksummedLines.recoverTail(rollupFile);
+
+        loadRollups();
+    }
+
+    /**
+     * Rewrite segments still holding lines in an older format
+     * Each segment is replaced atomically, and rollups of rewritten days are
+     * dropped so maintain() recomputes them with the typed outcomes
+     * @return true if any segment was rewritten (byte offsets changed)
+     */
+    public synchronized boolean upgradeFormat() {
+        File formatFile = new File(directory, FORMAT_FILE);
+        int version = 1;
+        try {
+            if (formatFile.exists()) {
+                version = Integer.parseInt(new String(Files.readAllBytes(formatFile.toPath()), StandardCharsets.UTF_8).trim());
+            } else if (segmentDays.isEmpty()) {
+                version = FORMAT_VERSION; // Fresh store, nothing to upgrade
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading history format: " + e.getMessage());
+        }
+
+        boolean rewritten = false;
+        if (version < FORMAT_VERSION) {
+            System.out.println("Upgrading history segments to format " + FORMAT_VERSION);
+            for (String day : segmentDays) {
+                List<GameRecord> records = readSegment(day);
+                try {
+                    RecordLog.replaceAtomically(segmentFile(day), out -> {
+                        for (GameRecord record : records) {
+                            out.write((ChecksummedLines.seal(record.toCSVString()) + "\n").getBytes(StandardCharsets.UTF_8));
+                        }
+                    });
+                    archiveFile(day).delete(); // Re-archived by the next maintain()
+                    rollups.remove(day);
+                    rewritten = true;
+                } catch (IOException e) {
+                    System.err.println("Error upgrading history segment " + day + ": " + e.getMessage());
+                    return rewritten; // Try again next start
+                }
+            }
+            rewriteRollups();
+        }
+
+        try {
+            directory.mkdirs();
+            RecordLog.replaceAtomically(formatFile,
+                out -> out.write(String.valueOf(FORMAT_VERSION).getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            System.err.println("Error saving history format: " + e.getMessage());
+        }
+        return rewritten;
+    }
+
+    /**
+     * Append a record to the segment for its day and sync it to disk
+     * @return byte offset of the record in its segment, or -1 if it could not be written
+     */
+    public synchronized long append(GameRecord record) {
+        String day = dayKey(record.getDate());
+        directory.mkdirs();
+
+        File file = segmentFile(day);
+        long offset = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write((ChecksummedLines.seal(record.toCSVString()) + "\n").getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+            segmentDays.add(day);
+            return offset;
+        } catch (IOException e) {
+            System.err.println("Error appending to history segment " + day + ": " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Read every record stored in one day's segment
+     */
+    public List<GameRecord> readSegment(String day) {
+        List<GameRecord> records = new ArrayList<>();
+        scanSegment(day, records::add);
+        return records;
+    }
+
+    /**
+     * Visit all records between two dates (inclusive), opening only overlapping segments
+     */
+    public void forEachInRange(Date from, Date to, Consumer<GameRecord> consumer) {
+        for (String day : daysInRange(from, to)) {
+            forEachInSegment(day, from, to, consumer);
+        }
+    }
+
+    /**
+     * Visit the records of one segment that fall between two dates (null for open ends)
+     */
+    public void forEachInSegment(String day, Date from, Date to, Consumer<GameRecord> consumer) {
+        scanSegment(day, record -> {
+            if (from != null && record.getDate().before(from)) return;
+            if (to != null && record.getDate().after(to)) return;
+            consumer.accept(record);
+        });
+    }
+
+    /**
+     * Read one page of records matching a query, continuing from a cursor (null for the first page)
+     */
+    public HistoryPage query(HistoryQuery query, HistoryCursor cursor) {
+        HistoryFilter filter = query.getFilter();
+        boolean newestFirst = query.getOrder() == HistoryOrder.NEWEST_FIRST;
+
+        NavigableSet<String> days = daysInRange(filter.getFrom(), filter.getTo());
+        if (newestFirst) {
+            days = days.descendingSet();
+        }
+        if (cursor != null) {
+            days = days.tailSet(cursor.getDay(), true);
+        }
+
+        List<GameRecord> records = new ArrayList<>();
+        for (String day : days) {
+            if (!filter.mayMatchDay(getRollup(day))) continue;
+
+            boolean resume = cursor != null && day.equals(cursor.getDay());
+            long next;
+            if (newestFirst) {
+                next = scanBackward(day, resume ? cursor.getPosition() : -1, filter, records, query.getPageSize());
+            } else {
+                next = scanForward(day, resume ? cursor.getPosition() : 0, filter, records, query.getPageSize());
+            }
+
+            if (next >= 0) {
+                // A page that filled exactly at the end of the last matching day has nothing after it
+                boolean dayFinished = newestFirst ? next == 0 : next >= getSegmentLength(day);
+                if (dayFinished && !hasMatchingDayAfter(days, day, filter)) {
+                    return new HistoryPage(records, null);
+                }
+                return new HistoryPage(records, new HistoryCursor(day, next));
+            }
+        }
+
+        return new HistoryPage(records, null);
+    }
+
+    /**
+     * Whether any day after the given one (in the set's order) may hold matching records
+     */
+    private boolean hasMatchingDayAfter(NavigableSet<String> days, String day, HistoryFilter filter) {
+        for (String later : days.tailSet(day, false)) {
+            if (filter.mayMatchDay(getRollup(later))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Visit the records of a segment from a byte offset on, with the offset of each line
+     */
+    public void forEachWithOffset(String day, long startOffset, BiConsumer<GameRecord, Long> consumer) {
+        try (InputStream reader = openSegment(day, startOffset)) {
+            if (reader == null) return;
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = startOffset;
+            long lineStart = startOffset;
+
+            int b;
+            while ((b = reader.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                if (line.size() > 0) {
+                    GameRecord record = parseLine(new String(line.toByteArray(), StandardCharsets.UTF_8), day);
+                    if (record != null) {
+                        consumer.accept(record, lineStart);
+                    }
+                }
+                line.reset();
+                lineStart = position;
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading history segment " + day + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read the records starting at the given (ascending) byte offsets of one segment
+     * The file is opened once and each record is a single seek and read; an
+     * archived segment is streamed once, keeping only the requested lines
+     */
+    public void readAt(String day, long[] lineOffsets, int from, int to, Consumer<GameRecord> consumer) {
+        if (from >= to) return;
+
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile(day), "r")) {
+            byte[] buffer = new byte[512];
+            for (int i = from; i < to; i++) {
+                raf.seek(lineOffsets[i]);
+
+                int length = 0;
+                int newline = -1;
+                while (newline < 0) {
+                    if (length == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    int read = raf.read(buffer, length, buffer.length - length);
+                    if (read <= 0) break;
+                    for (int j = length; j < length + read; j++) {
+                        if (buffer[j] == '\n') { newline = j; break; }
+                    }
+                    length += read;
+                }
+                if (newline < 0) continue; // Torn line
+
+                GameRecord record = parseLine(new String(buffer, 0, newline, StandardCharsets.UTF_8), day);
+                if (record != null) {
+                    consumer.accept(record);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            int[] next = {from};
+            forEachWithOffset(day, lineOffsets[from], (record, offset) -> {
+                while (next[0] < to && lineOffsets[next[0]] < offset) next[0]++;
+                if (next[0] < to && lineOffsets[next[0]] == offset) {
+                    consumer.accept(record);
+                    next[0]++;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error reading history segment " + day + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Uncompressed size of a segment in bytes (0 if it does not exist)
+     */
+    public long getSegmentLength(String day) {
+        File file = segmentFile(day);
+        if (file.exists()) return file.length();
+
+        // The gzip trailer ends with the uncompressed size (mod 2^32, far above a day of games)
+        File archive = archiveFile(day);
+        if (!archive.exists()) return 0;
+        try (RandomAccessFile raf = new RandomAccessFile(archive, "r")) {
+            raf.seek(raf.length() - 4);
+            return Integer.reverseBytes(raf.readInt()) & 0xFFFFFFFFL;
+        } catch (IOException e) {
+            System.err.println("Error reading history archive " + day + ": " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Get the oldest segment day still on disk, or null if there are none
+     */
+    public synchronized String getFirstDay() {
+        return segmentDays.isEmpty() ? null : segmentDays.first();
+    }
+
+    /**
+     * Get a snapshot of the segment days overlapping two dates (null for open ends)
+     */
+    public synchronized NavigableSet<String> daysInRange(Date from, Date to) {
+        String fromDay = from != null ? dayKey(from) : null;
+        String toDay = to != null ? dayKey(to) : null;
+
+        if (fromDay == null && toDay == null) return new TreeSet<>(segmentDays);
+        if (fromDay == null) return new TreeSet<>(segmentDays.headSet(toDay, true));
+        if (toDay == null) return new TreeSet<>(segmentDays.tailSet(fromDay, true));
+        if (fromDay.compareTo(toDay) > 0) return new TreeSet<>();
+        return new TreeSet<>(segmentDays.subSet(fromDay, true, toDay, true));
+    }
+
+    /**
+     * Get the rollup of a finished day, or null if the day is not rolled up yet
+     */
+    public synchronized DailyRollup getRollup(String day) {
+        return rollups.get(day);
+    }
+
+    /**
+     * Roll up a finished day from stats already accumulated in memory
+     */
+    public synchronized void rollUp(String day, DailyRollup rollup) {
+        if (rollups.containsKey(day)) return;
+        rollups.put(day, rollup);
+        appendRollup(rollup);
+    }
+
+    /**
+     * Roll up every finished day that has no summary yet, archive cold
+     * segments and drop segments that fell out of the retention window
+     */
+    public synchronized void maintain(String today) {
+        for (String day : segmentDays) {
+            if (day.compareTo(today) < 0 && !rollups.containsKey(day)) {
+                DailyRollup rollup = new DailyRollup(day);
+                scanSegment(day, rollup::add);
+                rollUp(day, rollup);
+            }
+        }
+
+        String cutoff = dayKey(daysAgo(retentionDays));
+        Iterator<String> iterator = segmentDays.iterator();
+        while (iterator.hasNext()) {
+            String day = iterator.next();
+            if (day.compareTo(cutoff) >= 0) break;
+
+            // Only drop a segment once its summary is safely on disk
+            if (rollups.containsKey(day) && deleteSegment(day)) {
+                iterator.remove();
+            }
+        }
+
+        String archiveCutoff = dayKey(daysAgo(archiveDays));
+        for (String day : segmentDays.headSet(archiveCutoff, false)) {
+            if (rollups.containsKey(day) && segmentFile(day).exists()) {
+                archive(day);
+            }
+        }
+
+        // Segments archived under an earlier, shorter archive window are restored once
+        for (String day : segmentDays.tailSet(archiveCutoff, true)) {
+            if (!segmentFile(day).exists() && archiveFile(day).exists()) {
+                unarchive(day);
+            }
+        }
+    }
+
+    /**
+     * Get the summaries of all rolled up days, oldest first
+     */
+    public synchronized List<DailyRollup> getRollups() {
+        return new ArrayList<>(rollups.values());
+    }
+
+    /**
+     * Delete every segment and summary
+     */
+    public synchronized void clear() {
+        for (String day : segmentDays) {
+            deleteSegment(day);
+        }
+        rollupFile.delete();
+        segmentDays.clear();
+        rollups.clear();
+    }
+
+    /**
+     * Check whether any segment exists
+     */
+    public synchronized boolean isEmpty() {
+        return segmentDays.isEmpty() && rollups.isEmpty();
+    }
+
+    private File segmentFile(String day) {
+        return new File(directory, day + SEGMENT_SUFFIX);
+    }
+
+    private File archiveFile(String day) {
+        return new File(directory, day + ARCHIVE_SUFFIX);
+    }
+
+    /**
+     * Compress a cold segment; the plain file is removed once the archive is in place
+     */
+    private void archive(String day) {
+        File file = segmentFile(day);
+        try {
+            RecordLog.replaceAtomically(archiveFile(day), out -> {
+                GZIPOutputStream gzip = new GZIPOutputStream(out, READ_BLOCK_SIZE);
+                Files.copy(file.toPath(), gzip);
+                gzip.finish();
+            });
+            file.delete();
+        } catch (IOException e) {
+            System.err.println("Error archiving history segment " + day + ": " + e.getMessage());
+            archiveFile(day).delete();
+        }
+    }
+
+    /**
+     * Decompress an archived segment back into a plain one; the archive is removed once it is in place
+     */
+    private void unarchive(String day) {
+        try {
+            RecordLog.replaceAtomically(segmentFile(day), out -> {
+                try (InputStream input = openSegment(day, 0)) {
+                    byte[] block = new byte[READ_BLOCK_SIZE];
+                    int read;
+                    while ((read = input.read(block)) != -1) {
+                        out.write(block, 0, read);
+                    }
+                }
+            });
+            archiveFile(day).delete();
+        } catch (IOException e) {
+            System.err.println("Error restoring history segment " + day + ": " + e.getMessage());
+        }
+    }
+
+    private boolean deleteSegment(String day) {
+        File file = segmentFile(day);
+        File archive = archiveFile(day);
+        file.delete();
+        archive.delete();
+        return !file.exists() && !archive.exists();
+    }
+
+    /**
+     * Open a segment for reading from an uncompressed byte offset, or return
+     * null if it does not exist. Archived segments are decompressed as they
+     * are streamed, so skipping ahead still reads the compressed data before it
+     */
+    private InputStream openSegment(String day, long offset) throws IOException {
+        try {
+            FileInputStream input = new FileInputStream(segmentFile(day));
+            input.getChannel().position(offset);
+            return new BufferedInputStream(input, READ_BLOCK_SIZE);
+        } catch (FileNotFoundException e) {
+            File archive = archiveFile(day);
+            if (!archive.exists()) return null;
+
+            InputStream input = new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(archive), READ_BLOCK_SIZE), READ_BLOCK_SIZE);
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = input.skip(remaining);
+                if (skipped <= 0) break;
+                remaining -= skipped;
+            }
+            return input;
+        }
+    }
+
+    /**
+     * Decompress a whole archived segment (a day of games is small), or null if there is none
+     */
+    private byte[] readArchive(String day) throws IOException {
+        try (InputStream input = openSegment(day, 0)) {
+            if (input == null) return null;
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            byte[] block = new byte[READ_BLOCK_SIZE];
+            int read;
+            while ((read = input.read(block)) != -1) {
+                data.write(block, 0, read);
+            }
+            return data.toByteArray();
+        }
+    }
+
+    private void scanSegment(String day, Consumer<GameRecord> consumer) {
+        try (InputStream input = openSegment(day, 0)) {
+            if (input == null) return;
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                GameRecord record = parseLine(line, day);
+                if (record != null) {
+                    consumer.accept(record);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading history segment " + day + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read segment lines backwards from a byte position (-1 for the end of file)
+     * @return start of the last line taken once the page is full, or -1 if the segment ran out
+     */
+    private long scanBackward(String day, long endPosition, HistoryFilter filter,
+                              List<GameRecord> out, int limit) {
+        try (RandomAccessFile raf = new RandomAccessFile(segmentFile(day), "r")) {
+            return scanBackward(raf.length(), (position, block, length) -> {
+                raf.seek(position);
+                raf.readFully(block, 0, length);
+            }, endPosition, filter, out, limit);
+        } catch (FileNotFoundException e) {
+            try {
+                byte[] data = readArchive(day);
+                if (data == null) return -1;
+                return scanBackward(data.length,
+                    (position, block, length) -> System.arraycopy(data, (int) position, block, 0, length),
+                    endPosition, filter, out, limit);
+            } catch (IOException archiveError) {
+                System.err.println("Error reading history archive " + day + ": " + archiveError.getMessage());
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading history segment " + day + ": " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a block of segment bytes at a position
+     */
+    private interface BlockSource {
+        void read(long position, byte[] block, int length) throws IOException;
+    }
+
+    private static long scanBackward(long segmentLength, BlockSource source, long endPosition,
+                                     HistoryFilter filter, List<GameRecord> out, int limit) throws IOException {
+        long position = endPosition < 0 ? segmentLength : Math.min(endPosition, segmentLength);
+        byte[] block = new byte[READ_BLOCK_SIZE];
+        byte[] carry = new byte[0]; // Tail of a line that started in an earlier block
+
+        while (position > 0) {
+            int length = (int) Math.min(block.length, position);
+            position -= length;
+            source.read(position, block, length);
+
+            int end = length;
+            for (int i = length - 1; i >= 0; i--) {
+                if (block[i] != '\n') continue;
+
+                long lineStart = position + i + 1;
+                if (takeLine(concat(block, i + 1, end, carry), filter, out, limit)) {
+                    return lineStart;
+                }
+                carry = new byte[0];
+                end = i;
+            }
+            carry = concat(block, 0, end, carry);
+        }
+
+        return takeLine(carry, filter, out, limit) ? 0 : -1;
+    }
+
+    /**
+     * Read segment lines forwards from a byte position
+     * @return position just past the last line taken once the page is full, or -1 if the segment ran out
+     */
+    private long scanForward(String day, long startPosition, HistoryFilter filter,
+                             List<GameRecord> out, int limit) {
+        try (InputStream reader = openSegment(day, startPosition)) {
+            if (reader == null) return -1;
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = startPosition;
+
+            int b;
+            while ((b = reader.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+
+                if (takeLine(line.toByteArray(), filter, out, limit)) {
+                    return position;
+                }
+                line.reset();
+            }
+            // A trailing line without a newline is still being written, leave it for later
+        } catch (IOException e) {
+            System.err.println("Error reading history segment " + day + ": " + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Parse a segment line and keep it if it matches
+     * @return true once the page is full
+     */
+    private static boolean takeLine(byte[] line, HistoryFilter filter, List<GameRecord> out, int limit) {
+        if (line.length == 0) return false;
+
+        GameRecord record = parseLine(new String(line, StandardCharsets.UTF_8), null);
+        if (record != null && filter.matches(record)) {
+            out.add(record);
+        }
+        return out.size() >= limit;
+    }
+
+    /**
+     * Verify a segment line's checksum and parse it
+     */
+    private static GameRecord parseLine(String line, String day) {
+        String payload = ChecksummedLines.unseal(line);
+        if (payload == null) {
+            System.err.println("Skipping corrupt history line" + (day != null ? " in " + day : "") + ": " + line);
+            return null;
+        }
+        return GameRecord.fromCSVString(payload);
+    }
+
+    private static byte[] concat(byte[] block, int from, int to, byte[] tail) {
+        byte[] joined = new byte[to - from + tail.length];
+        System.arraycopy(block, from, joined, 0, to - from);
+        System.arraycopy(tail, 0, joined, to - from, tail.length);
+        return joined;
+    }
+
+    private void loadRollups() {
+        if (!rollupFile.exists()) return;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(rollupFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String payload = ChecksummedLines.unseal(line);
+                if (payload == null || payload.isEmpty()) continue;
+                DailyRollup rollup = DailyRollup.fromCSVString(payload);
+                if (rollup != null) {
+                    rollups.put(rollup.getDay(), rollup);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading history rollups: " + e.getMessage());
+        }
+    }
+
+    private void rewriteRollups() {
+        try {
+            RecordLog.replaceAtomically(rollupFile, out -> {
+                for (DailyRollup rollup : rollups.values()) {
+                    out.write((ChecksummedLines.seal(rollup.toCSVString()) + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error saving history rollups: " + e.getMessage());
+        }
+    }
+
+    private void appendRollup(DailyRollup rollup) {
+        directory.mkdirs();
+        try (FileOutputStream out = new FileOutputStream(rollupFile, true)) {
+            out.write((ChecksummedLines.seal(rollup.toCSVString()) + "\n").getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+        } catch (IOException e) {
+            System.err.println("Error saving history rollup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get the segment key for a date
+     */
+    public static String dayKey(Date date) {
+        return new SimpleDateFormat("yyyy-MM-dd").format(date);
+    }
+
+    /**
+     * Get the date a number of days before now
+     */
+    public static Date daysAgo(int days) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_YEAR, -days);
+        return calendar.getTime();
+    }
+}
+
+/**
+ * Precomputed per-mode totals for a single day of history
+ */
+class DailyRollup {
+    private final String day;
+    private final GameModeStats pvcStats = new GameModeStats(GameMode.PVC);
+    private final GameModeStats pvpStats = new GameModeStats(GameMode.PVP);
+
+    public DailyRollup(String day) {
+        this.day = day;
+    }
+
+    public String getDay() { return day; }
+
+    public GameModeStats getStats(GameMode mode) {
+        return mode == GameMode.PVC ? pvcStats : pvpStats;
+    }
+
+    public void add(GameRecord record) {
+        getStats(record.getGameMode()).add(record);
+    }
+
+    /**
+     * Convert to CSV string format: day followed by the totals of each mode
+     */
+    public String toCSVString() {
+        return day + "," + pvcStats.toCSVString() + "," + pvpStats.toCSVString();
+    }
+
+    /**
+     * Create DailyRollup from CSV string
+     */
+    public static DailyRollup fromCSVString(String csvLine) {
+        try {
+            String[] parts = csvLine.split(",");
+            if (parts.length < 9) return null;
+
+            DailyRollup rollup = new DailyRollup(parts[0]);
+            rollup.pvcStats.loadCSVFields(parts, 1);
+            rollup.pvpStats.loadCSVFields(parts, 5);
+            return rollup;
+        } catch (Exception e) {
+            System.err.println("Error parsing rollup line: " + csvLine);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.*;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latency Histogram - Fixed-size, log-bucketed histogram of millisecond timings
+ * Every power of two is split into 8 linear sub-buckets, so any value is
+ * kept within 12.5% of its true size. Recording is O(1) and percentiles walk
+ * the bucket array once, however many values were recorded
+ */
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long totalValue;
+    private long maxValue;
+
+    /**
+     * Count one timing (negative values count as 0)
+     */
+    public void record(long valueMs) {
+        long value = Math.max(0, valueMs);
+        counts[bucketIndex(value)]++;
+        totalCount++;
+        totalValue += value;
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Add all values of another histogram
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalValue += other.totalValue;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    public long getCount() { return totalCount; }
+    public long getMax() { return maxValue; }
+
+    public long getMean() {
+        return totalCount == 0 ? 0 : totalValue / totalCount;
+    }
+
+    /**
+     * Value at a percentile (0-100): the top of the bucket holding it, capped at the max
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(bucketEnd(i) - 1, maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    /**
+     * Short text form, e.g. "p50 12.0s, p90 31.5s, p99 58.0s, max 1m 4s"
+     */
+    public String getSummary() {
+        return "p50 " + formatMs(getPercentile(50)) + ", p90 " + formatMs(getPercentile(90))
+            + ", p99 " + formatMs(getPercentile(99)) + ", max " + formatMs(maxValue);
+    }
+
+    /**
+     * Write the totals and the non-empty buckets
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(totalCount);
+        out.writeLong(totalValue);
+        out.writeLong(maxValue);
+
+        int used = 0;
+        for (long count : counts) {
+            if (count > 0) used++;
+        }
+        out.writeShort(used);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                out.writeShort(i);
+                out.writeLong(counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Read a histogram written by writeTo
+     */
+    public static LatencyHistogram readFrom(DataInputStream in) throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.totalCount = in.readLong();
+        histogram.totalValue = in.readLong();
+        histogram.maxValue = in.readLong();
+
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int bucket = in.readUnsignedShort();
+            if (bucket >= BUCKET_COUNT) throw new IOException("Bad histogram bucket " + bucket);
+            histogram.counts[bucket] = in.readLong();
+        }
+        return histogram;
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * First value past a bucket
+     */
+    private static long bucketEnd(int index) {
+        if (index < SUB_BUCKETS) return index + 1;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long end = (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+        return end > 0 ? end : Long.MAX_VALUE; // Top bucket overflows
+    }
+
+    private static String formatMs(long ms) {
+        if (ms < 1000) return ms + "ms";
+        if (ms < 60_000) return String.format("%.1fs", ms / 1000.0);
+        return (ms / 60_000) + "m " + (ms % 60_000) / 1000 + "s";
+    }
+}
+
+/**
+ * Game duration and round timing histograms for each game mode
+ * Updated as games are saved and kept in one small file that is replaced
+ * atomically, so statistics never rescan the history
+ */
+class LatencyStats {
+    private static final int STATS_MAGIC = 0x5250534C; // "RPSL"
+    private static final int STATS_VERSION = 1;
+
+    private final File file;
+    private final Map<GameMode, LatencyHistogram> gameDurations = new EnumMap<>(GameMode.class);
+    private final Map<GameMode, LatencyHistogram> roundDurations = new EnumMap<>(GameMode.class);
+
+    public LatencyStats(File file) {
+        this.file = file;
+        reset();
+    }
+
+    /**
+     * Load the saved histograms
+     * @return false if there is no readable file yet
+     */
+    public synchronized boolean load() {
+        reset();
+        if (!file.exists()) return false;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != STATS_MAGIC || in.readUnsignedByte() != STATS_VERSION) {
+                throw new IOException("Unknown latency stats format");
+            }
+            for (GameMode mode : GameMode.values()) {
+                gameDurations.put(mode, LatencyHistogram.readFrom(in));
+                roundDurations.put(mode, LatencyHistogram.readFrom(in));
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error loading latency stats: " + e.getMessage());
+            reset();
+            return false;
+        }
+    }
+
+    /**
+     * Rebuild game durations from the segments still on disk
+     * Round timings are not stored per game, so they start over
+     */
+    public synchronized void rebuild(HistorySegmentStore store) {
+        reset();
+        store.forEachInRange(null, null, record ->
+            gameDurations.get(record.getGameMode()).record(record.getDurationMs()));
+        save();
+    }
+
+    /**
+     * Count a finished game and its rounds, then save
+     */
+    public synchronized void add(GameMode mode, long durationMs, long[] roundDurationsMs) {
+        gameDurations.get(mode).record(durationMs);
+        for (long roundMs : roundDurationsMs) {
+            roundDurations.get(mode).record(roundMs);
+        }
+        save();
+    }
+
+    /**
+     * Copy of a mode's game duration histogram (null mode for all modes)
+     */
+    public synchronized LatencyHistogram getGameDurations(GameMode mode) {
+        return copy(gameDurations, mode);
+    }
+
+    /**
+     * Copy of a mode's round timing histogram (null mode for all modes)
+     */
+    public synchronized LatencyHistogram getRoundDurations(GameMode mode) {
+        return copy(roundDurations, mode);
+    }
+
+    public synchronized void clear() {
+        reset();
+        file.delete();
+    }
+
+    private LatencyHistogram copy(Map<GameMode, LatencyHistogram> histograms, GameMode mode) {
+        LatencyHistogram result = new LatencyHistogram();
+        for (Map.Entry<GameMode, LatencyHistogram> entry : histograms.entrySet()) {
+            if (mode == null || entry.getKey() == mode) {
+                result.merge(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private void reset() {
+        for (GameMode mode : GameMode.values()) {
+            gameDurations.put(mode, new LatencyHistogram());
+            roundDurations.put(mode, new LatencyHistogram());
+        }
+    }
+
+    private void save() {
+        try {
+            RecordLog.replaceAtomically(file, out -> {
+                DataOutputStream data = new DataOutputStream(out);
+                data.writeInt(STATS_MAGIC);
+                data.writeByte(STATS_VERSION);
+                for (GameMode mode : GameMode.values()) {
+                    gameDurations.get(mode).writeTo(data);
+                    roundDurations.get(mode).writeTo(data);
+                }
+                data.flush();
+            });
+        } catch (IOException e) {
+            System.err.println("Error saving latency stats: " + e.getMessage());
+        }
+    }
+}
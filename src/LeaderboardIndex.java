@@ -0,0 +1,333 @@
+import java.util.*;
+
+/**
+ * Leaderboard Index - Players kept in ranking order as their stats change
+ * A treap (randomized balanced search tree) whose nodes also count their
+ * subtree size, so updates, rank lookups and access by rank are O(log n)
+ * and the top k players are read in O(k + log n) without sorting.
+ * The treap is persistent: updates copy the O(log n) nodes on the changed
+ * path and share the rest, so a snapshot is just the current roots.
+ * Methods are synchronized; the profiles it holds are snapshots that are
+ * replaced on update, never changed in place. Both players of a game are
+ * updated in one call, so a snapshot never holds half a game
+ */
+class LeaderboardIndex {
+    private static final Comparator<RankKey> BY_RANK = RankKey::compareTo;
+    private static final Comparator<RankKey> BY_NAME = (a, b) -> a.name.compareTo(b.name);
+
+    private final Random random = new Random();
+    private Node ranking; // Players in ranking order
+    private Node byName;  // The same players by name, to find a player's current key
+    private long totalGames;
+    private long changes; // Grows with every update, used as the snapshot version
+
+    /**
+     * Insert players or move them to the places matching their current stats
+     * Call after every change to a player's counters, with every player of the game at once
+     */
+    public synchronized void update(PlayerProfile... players) {
+        for (PlayerProfile player : players) {
+            Node previous = find(byName, player.name);
+            if (previous != null) {
+                ranking = remove(ranking, previous.key, BY_RANK);
+                byName = remove(byName, previous.key, BY_NAME);
+                totalGames -= previous.player.gamesPlayed;
+            }
+            RankKey key = new RankKey(player);
+            ranking = insert(ranking, key, player, random.nextInt(), BY_RANK);
+            byName = insert(byName, key, player, random.nextInt(), BY_NAME);
+            totalGames += player.gamesPlayed;
+        }
+        changes++;
+    }
+
+    /**
+     * Replace the contents with the given players in O(n log n): the players
+     * are sorted once per order and linked into balanced trees
+     */
+    public synchronized void rebuild(Collection<PlayerProfile> players) {
+        clear();
+        RankKey[] keys = new RankKey[players.size()];
+        PlayerProfile[] profiles = new PlayerProfile[keys.length];
+        int count = 0;
+        for (PlayerProfile player : players) {
+            keys[count] = new RankKey(player);
+            profiles[count++] = player;
+            totalGames += player.gamesPlayed;
+        }
+        ranking = build(keys, profiles, BY_RANK);
+        byName = build(keys, profiles, BY_NAME);
+    }
+
+    public synchronized void clear() {
+        ranking = null;
+        byName = null;
+        totalGames = 0;
+        changes++;
+    }
+
+    /**
+     * Version the next snapshot would have; unchanged means nothing to publish
+     */
+    public synchronized long getChanges() {
+        return changes;
+    }
+
+    /**
+     * The current ranking, versioned by the change count, in O(1)
+     * Nodes are never changed once built (updates copy the path they change),
+     * so the snapshot simply keeps the current roots
+     */
+    public synchronized LeaderboardSnapshot snapshot() {
+        return new LeaderboardSnapshot(changes, ranking, byName, totalGames);
+    }
+
+    /**
+     * Balanced tree over the players sorted in the given order, with random
+     * priorities handed out level by level so the treap order still holds
+     */
+    private Node build(RankKey[] keys, PlayerProfile[] profiles, Comparator<RankKey> order) {
+        int count = keys.length;
+        Integer[] sorted = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> order.compare(keys[a], keys[b]));
+
+        int[] priorities = new int[count];
+        for (int i = 0; i < count; i++) {
+            priorities[i] = random.nextInt();
+        }
+        Arrays.sort(priorities);
+
+        // Middle of each range in breadth-first order, highest priorities first
+        int[] nodePriorities = new int[count];
+        ArrayDeque<int[]> level = new ArrayDeque<>();
+        if (count > 0) level.add(new int[] {0, count});
+        int next = count;
+        while (!level.isEmpty()) {
+            int[] range = level.poll();
+            int mid = (range[0] + range[1]) >>> 1;
+            nodePriorities[mid] = priorities[--next];
+            if (range[0] < mid) level.add(new int[] {range[0], mid});
+            if (mid + 1 < range[1]) level.add(new int[] {mid + 1, range[1]});
+        }
+        return link(sorted, nodePriorities, keys, profiles, 0, count);
+    }
+
+    private static Node link(Integer[] sorted, int[] priorities, RankKey[] keys, PlayerProfile[] profiles,
+                             int from, int to) {
+        if (from >= to) return null;
+        int mid = (from + to) >>> 1;
+        Node left = link(sorted, priorities, keys, profiles, from, mid);
+        Node right = link(sorted, priorities, keys, profiles, mid + 1, to);
+        return new Node(keys[sorted[mid]], profiles[sorted[mid]], priorities[mid], left, right);
+    }
+
+    private static Node insert(Node node, RankKey key, PlayerProfile player, int priority,
+                               Comparator<RankKey> order) {
+        if (node == null) return new Node(key, player, priority, null, null);
+
+        if (order.compare(key, node.key) < 0) {
+            Node left = insert(node.left, key, player, priority, order);
+            if (left.priority > node.priority) {
+                // Rotate right: the new child becomes the parent
+                return left.with(left.left, node.with(left.right, node.right));
+            }
+            return node.with(left, node.right);
+        } else {
+            Node right = insert(node.right, key, player, priority, order);
+            if (right.priority > node.priority) {
+                return right.with(node.with(node.left, right.left), right.right);
+            }
+            return node.with(node.left, right);
+        }
+    }
+
+    private static Node remove(Node node, RankKey key, Comparator<RankKey> order) {
+        if (node == null) return null;
+
+        int compared = order.compare(key, node.key);
+        if (compared < 0) return node.with(remove(node.left, key, order), node.right);
+        if (compared > 0) return node.with(node.left, remove(node.right, key, order));
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * Join two subtrees where every key of the first sorts before the second
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        if (first.priority > second.priority) {
+            return first.with(first.left, merge(first.right, second));
+        }
+        return second.with(merge(first, second.left), second.right);
+    }
+
+    /**
+     * Node of a player in a tree ordered by name, or null
+     */
+    static Node find(Node node, String name) {
+        while (node != null) {
+            int order = name.compareTo(node.key.name);
+            if (order == 0) return node;
+            node = order < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Immutable tree node; a change builds new nodes along the path to it and
+     * shares every untouched subtree with earlier versions
+     */
+    static final class Node {
+        final RankKey key;
+        final PlayerProfile player;
+        final int priority;
+        final Node left;
+        final Node right;
+        final int size;
+
+        Node(RankKey key, PlayerProfile player, int priority, Node left, Node right) {
+            this.key = key;
+            this.player = player;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + LeaderboardIndex.size(left) + LeaderboardIndex.size(right);
+        }
+
+        Node with(Node newLeft, Node newRight) {
+            return new Node(key, player, priority, newLeft, newRight);
+        }
+    }
+
+    /**
+     * Snapshot of the fields a player is ranked by
+     * Order: higher rating, then more games won, then name
+     */
+    static final class RankKey implements Comparable<RankKey> {
+        final double rating;
+        final int gamesWon;
+        final String name;
+
+        RankKey(PlayerProfile player) {
+            this.rating = player.rating;
+            this.gamesWon = player.gamesWon;
+            this.name = player.name;
+        }
+
+        @Override
+        public int compareTo(RankKey other) {
+            if (rating != other.rating) return Double.compare(other.rating, rating);
+            if (gamesWon != other.gamesWon) return Integer.compare(other.gamesWon, gamesWon);
+            return name.compareTo(other.name);
+        }
+    }
+}
+
+/**
+ * Leaderboard Snapshot - The ranking at one moment
+ * Holds the index's tree roots as they were when it was taken; the nodes
+ * are immutable, so taking one copies nothing and lookups stay O(log n).
+ * Published through a single volatile field, so readers never lock and
+ * never see a half-applied game. The version grows with every change
+ */
+class LeaderboardSnapshot {
+    static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(0, null, null, 0);
+
+    private final long version;
+    private final LeaderboardIndex.Node ranking;
+    private final LeaderboardIndex.Node byName;
+    private final long totalGames;
+
+    LeaderboardSnapshot(long version, LeaderboardIndex.Node ranking, LeaderboardIndex.Node byName, long totalGames) {
+        this.version = version;
+        this.ranking = ranking;
+        this.byName = byName;
+        this.totalGames = totalGames;
+    }
+
+    public long getVersion() { return version; }
+    public int size() { return LeaderboardIndex.size(ranking); }
+    public long getTotalGames() { return totalGames; }
+
+    /**
+     * Player at a rank (0 = best), or null if out of range, in O(log n)
+     */
+    public PlayerProfile get(int rank) {
+        LeaderboardIndex.Node node = ranking;
+        while (node != null) {
+            int leftSize = LeaderboardIndex.size(node.left);
+            if (rank < leftSize) {
+                node = node.left;
+            } else if (rank == leftSize) {
+                return node.player;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The best k players, best first, in O(k + log n)
+     */
+    public List<PlayerProfile> top(int k) {
+        return range(0, k);
+    }
+
+    /**
+     * Up to count players starting at a rank (0 = best), best first, in O(count + log n)
+     */
+    public List<PlayerProfile> range(int fromRank, int count) {
+        List<PlayerProfile> result = new ArrayList<>(Math.max(0, Math.min(count, size() - fromRank)));
+        collect(ranking, Math.max(0, fromRank), count, result);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Rank of a player (0 = best), or -1 if the player is not ranked, in O(log n)
+     */
+    public int rankOf(String name) {
+        LeaderboardIndex.Node found = LeaderboardIndex.find(byName, name);
+        if (found == null) return -1;
+        LeaderboardIndex.RankKey key = found.key;
+
+        int rank = 0;
+        LeaderboardIndex.Node node = ranking;
+        while (node != null) {
+            int order = key.compareTo(node.key);
+            if (order < 0) {
+                node = node.left;
+            } else if (order == 0) {
+                return rank + LeaderboardIndex.size(node.left);
+            } else {
+                rank += LeaderboardIndex.size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * In-order walk of a subtree that skips its first skip players
+     */
+    private static void collect(LeaderboardIndex.Node node, int skip, int limit, List<PlayerProfile> out) {
+        if (node == null || out.size() >= limit) return;
+        int leftSize = LeaderboardIndex.size(node.left);
+        if (skip < leftSize) {
+            collect(node.left, skip, limit, out);
+        }
+        if (out.size() < limit && skip <= leftSize) {
+            out.add(node.player);
+        }
+        collect(node.right, Math.max(0, skip - leftSize - 1), limit, out);
+    }
+}
@@ -0,0 +1,102 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.function.Supplier;
+
+/**
+ * Leaderboard Table Model - Read-only table view over a leaderboard snapshot
+ * Rows are looked up in the snapshot only when the table asks for them and
+ * cells are formatted as they are drawn, so opening the leaderboard costs the
+ * same for ten players or a million. The snapshot never changes underneath
+ * the table; Refresh switches to the latest published one
+ */
+class LeaderboardTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMN_NAMES = {
+        "Rank", "Player", "Rating", "Games", "Wins", "Win Rate", "PvC W/L", "PvP W/L", "Last Played"
+    };
+
+    private final Supplier<LeaderboardSnapshot> source;
+    private LeaderboardSnapshot snapshot;
+    private boolean ascending; // Worst first instead of best first
+
+    public LeaderboardTableModel(Supplier<LeaderboardSnapshot> source) {
+        this.source = source;
+        this.snapshot = source.get();
+    }
+
+    /**
+     * Switch to the latest published snapshot
+     */
+    public void refresh() {
+        snapshot = source.get();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Snapshot the table is currently showing
+     */
+    public LeaderboardSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Show the ranking worst first (true) or best first (false)
+     * Only reverses how rows map to ranks, nothing is sorted
+     */
+    public void setAscending(boolean ascending) {
+        if (this.ascending == ascending) return;
+        this.ascending = ascending;
+        fireTableDataChanged();
+    }
+
+    /**
+     * Table row showing a rank (0 = best), or -1 if out of range
+     */
+    public int rowForRank(int rank) {
+        if (rank < 0 || rank >= snapshot.size()) return -1;
+        return ascending ? snapshot.size() - 1 - rank : rank;
+    }
+
+    @Override
+    public int getRowCount() {
+        return snapshot.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int rank = ascending ? snapshot.size() - 1 - row : row;
+        PlayerProfile player = snapshot.get(rank);
+        if (player == null) return "";
+
+        switch (column) {
+            case 0:
+                // Add medal emojis for top 3
+                if (rank == 0) return "🥇 1";
+                if (rank == 1) return "🥈 2";
+                if (rank == 2) return "🥉 3";
+                return String.valueOf(rank + 1);
+            case 1: return player.name;
+            case 2: return Math.round(player.rating);
+            case 3: return player.gamesPlayed;
+            case 4: return player.gamesWon;
+            case 5: return String.format("%.1f%%", player.getWinRate());
+            case 6: return player.pvcWins + "/" + (player.pvcGames - player.pvcWins);
+            case 7: return player.pvpWins + "/" + (player.pvpGames - player.pvpWins);
+            case 8: return PlayerManager.formatDate(player.lastPlayed);
+            default: return "";
+        }
+    }
+}
@@ -0,0 +1,134 @@
+import java.util.List;
+
+/**
+ * Packed Rounds - Per-round moves and outcomes of one game in 2-bit slots
+ * Every round uses three slots: player 1 move, player 2 move and the result
+ * from player 1's side, so a round costs 6 bits instead of three objects
+ */
+class PackedRounds {
+    public static final PackedRounds EMPTY = new PackedRounds(0, new byte[0]);
+
+    private static final int SLOTS_PER_ROUND = 3;
+    private static final int SLOTS_PER_BYTE = 4;
+
+    // Slot codes: 0 is reserved for "no move" (missed or forfeited rounds)
+    private static final Move[] MOVE_CODES = {null, Move.ROCK, Move.PAPER, Move.SCISSORS};
+    private static final GameResult[] RESULT_CODES = {GameResult.DRAW, GameResult.WIN, GameResult.LOSE, GameResult.DRAW};
+
+    private final int roundCount;
+    private final byte[] data;
+
+    private PackedRounds(int roundCount, byte[] data) {
+        this.roundCount = roundCount;
+        this.data = data;
+    }
+
+    /**
+     * Pack the rounds recorded by GameLogic
+     */
+    public static PackedRounds encode(List<RoundResult> rounds) {
+        if (rounds.isEmpty()) return EMPTY;
+
+        byte[] data = new byte[byteLength(rounds.size())];
+        for (int i = 0; i < rounds.size(); i++) {
+            RoundResult round = rounds.get(i);
+            setSlot(data, i * SLOTS_PER_ROUND, moveCode(round.getPlayer1Move()));
+            setSlot(data, i * SLOTS_PER_ROUND + 1, moveCode(round.getPlayer2Move()));
+            setSlot(data, i * SLOTS_PER_ROUND + 2, resultCode(round.getResult()));
+        }
+        return new PackedRounds(rounds.size(), data);
+    }
+
+    public int getRoundCount() { return roundCount; }
+
+    public Move getPlayer1Move(int round) {
+        return MOVE_CODES[getSlot(round * SLOTS_PER_ROUND)];
+    }
+
+    public Move getPlayer2Move(int round) {
+        return MOVE_CODES[getSlot(round * SLOTS_PER_ROUND + 1)];
+    }
+
+    public GameResult getResult(int round) {
+        return RESULT_CODES[getSlot(round * SLOTS_PER_ROUND + 2)];
+    }
+
+    /**
+     * Raw packed bytes (not copied, do not modify)
+     */
+    public byte[] getData() { return data; }
+
+    /**
+     * Text form used in history files: round count, ':' and the bytes in hex
+     */
+    public String toToken() {
+        if (roundCount == 0) return "";
+
+        StringBuilder token = new StringBuilder().append(roundCount).append(':');
+        for (byte b : data) {
+            token.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return token.toString();
+    }
+
+    /**
+     * Parse a token written by toToken; empty or malformed tokens give EMPTY
+     */
+    public static PackedRounds fromToken(String token) {
+        int separator = token.indexOf(':');
+        if (separator <= 0) return EMPTY;
+
+        try {
+            int roundCount = Integer.parseInt(token.substring(0, separator));
+            String hex = token.substring(separator + 1).trim();
+            byte[] data = new byte[hex.length() / 2];
+            if (data.length != byteLength(roundCount)) return EMPTY;
+
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+            }
+            return new PackedRounds(roundCount, data);
+        } catch (NumberFormatException e) {
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Build from raw packed bytes (as stored by binary formats)
+     */
+    public static PackedRounds fromData(int roundCount, byte[] data) {
+        if (roundCount == 0 || data.length != byteLength(roundCount)) return EMPTY;
+        return new PackedRounds(roundCount, data);
+    }
+
+    private int getSlot(int slot) {
+        return (data[slot / SLOTS_PER_BYTE] >> ((slot % SLOTS_PER_BYTE) * 2)) & 0x3;
+    }
+
+    private static void setSlot(byte[] data, int slot, int code) {
+        data[slot / SLOTS_PER_BYTE] |= (byte) (code << ((slot % SLOTS_PER_BYTE) * 2));
+    }
+
+    private static int moveCode(Move move) {
+        return move == null ? 0 : move.ordinal() + 1;
+    }
+
+    private static int resultCode(GameResult result) {
+        switch (result) {
+            case WIN: return 1;
+            case LOSE: return 2;
+            default: return 0;
+        }
+    }
+
+    private static int byteLength(int roundCount) {
+        return (roundCount * SLOTS_PER_ROUND + SLOTS_PER_BYTE - 1) / SLOTS_PER_BYTE;
+    }
+}
+
+/**
+ * Receives rounds from bulk history scans without building round objects
+ */
+interface RoundVisitor {
+    void visit(GameRecord game, int round, Move player1Move, Move player2Move, GameResult result);
+}
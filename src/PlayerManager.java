@@ -1,24 +1,81 @@
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Player Manager - Handles player names, profiles, and leaderboard
- * Manages player data and statistics for the leaderboard system
+ * Manages player data and statistics for the leaderboard system.
+ * Live statistics are kept column by column in a PlayerTable.
+ * Games may finish on several threads at once: each player is guarded by
+ * one of a fixed set of stripe locks, so games between different players
+ * update in parallel, and the leaderboard only holds immutable snapshots.
+ * Changed profiles are written in batches shortly after they change, and
+ * each batch publishes a new read-only leaderboard snapshot for readers
  */
 public class PlayerManager {
-    private static final String PLAYERS_FILE = "players.dat";
-    private static Map<String, PlayerProfile> players = new HashMap<>();
+    private static final String PLAYERS_FILE = "players.dat"; // Legacy whole-map snapshot
+    private static final String PLAYERS_LOG = "players.log";
+    private static final RecordLog playerLog = new RecordLog(new File(PLAYERS_LOG));
+    private static final PlayerTable players = new PlayerTable();
+    private static final int STRIPE_COUNT = 64;
+    private static final Object[] stripes = new Object[STRIPE_COUNT];
+    // Shared by game updates, exclusive for whole-store work (compaction, recompute, clear)
+    private static final ReadWriteLock storeLock = new ReentrantReadWriteLock();
+    private static final LeaderboardIndex leaderboard = new LeaderboardIndex();
+    private static final Object snapshotLock = new Object(); // Keeps published versions in order
+    private static volatile LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+    private static final RecentPlayers recentPlayers = new RecentPlayers(10);
+    private static final PlayerNameIndex nameIndex = new PlayerNameIndex();
+    
+    // Latest unsaved snapshot of each changed player, written by the flusher
+    private static final Map<String, PlayerProfile> dirty = new ConcurrentHashMap<>();
+    private static final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "player-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int MAX_NAME_SUGGESTIONS = 8;
     private static String currentPlayer1Name = "Player 1";
     private static String currentPlayer2Name = "Player 2";
     
+    static {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Object();
+        }
+        // Pending changes are written on the way out, however the app exits
+        Runtime.getRuntime().addShutdownHook(new Thread(PlayerManager::flush, "player-flush-on-exit"));
+    }
+    
     /**
      * Initialize player management system
      */
     public static void initialize() {
+        flush();
         loadPlayersFromFile();
+        
+        // Ratings from an older formula (or from before ratings existed) are replayed from history
+        if (players.hasStaleRatings(RatingEngine.FORMULA_VERSION)) {
+            recomputeRatings();
+        } else {
+            leaderboard.rebuild(players.toProfiles());
+            publishSnapshot();
+        }
+        recentPlayers.rebuild(players.toProfiles());
+        nameIndex.rebuild(players.getNames());
+        HeadToHead.initialize();
     }
     
     /**
@@ -66,6 +123,7 @@ public class PlayerManager {
         gbc.gridx = 1;
         gbc.fill = GridBagConstraints.HORIZONTAL;
         inputPanel.add(player1Field, gbc);
+        installNameAutoComplete(player1Field);
         
         // Player 2 input (only for PvP) - declare as final
         final JTextField player2Field;
@@ -86,6 +144,7 @@ public class PlayerManager {
             gbc.gridx = 1;
             gbc.fill = GridBagConstraints.HORIZONTAL;
             inputPanel.add(player2Field, gbc);
+            installNameAutoComplete(player2Field);
         } else {
             player2Field = null; // Initialize to null for PvC mode
         }
@@ -205,41 +264,177 @@ public class PlayerManager {
     }
     
     /**
-     * Get or create player profile
+     * Show matching player names under a text field as the user types
      */
-    private static PlayerProfile getOrCreatePlayer(String name) {
-        PlayerProfile player = players.get(name);
-        if (player == null) {
-            player = new PlayerProfile(name);
-            players.put(name, player);
+    private static void installNameAutoComplete(JTextField field) {
+        JPopupMenu suggestions = new JPopupMenu();
+        suggestions.setFocusable(false);
+        
+        field.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { update(); }
+            
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { update(); }
+            
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { }
+            
+            private void update() {
+                // Wait until the document event is over before touching the popup
+                SwingUtilities.invokeLater(() -> showNameSuggestions(field, suggestions));
+            }
+        });
+        field.addFocusListener(new java.awt.event.FocusAdapter() {
+            @Override
+            public void focusLost(java.awt.event.FocusEvent e) {
+                suggestions.setVisible(false);
+            }
+        });
+    }
+    
+    private static void showNameSuggestions(JTextField field, JPopupMenu suggestions) {
+        suggestions.setVisible(false);
+        suggestions.removeAll();
+        
+        String prefix = field.getText().trim();
+        if (prefix.isEmpty() || !field.isShowing()) return;
+        
+        for (String name : nameIndex.findByPrefix(prefix, MAX_NAME_SUGGESTIONS)) {
+            if (name.equals(prefix)) continue;
+            JMenuItem item = new JMenuItem(name);
+            item.addActionListener(e -> field.setText(name));
+            suggestions.add(item);
+        }
+        
+        if (suggestions.getComponentCount() > 0) {
+            suggestions.show(field, 0, field.getHeight());
+            field.requestFocusInWindow();
+        }
+    }
+    
+    /**
+     * Get or create a player's slot, marking the player as recently active
+     */
+    private static int getOrCreatePlayer(String name) {
+        int slot = players.slotOf(name);
+        if (slot < 0) {
+            // New players are rare, so adding one may briefly hold up other games
+            storeLock.writeLock().lock();
+            try {
+                slot = players.slotOf(name);
+                if (slot < 0) {
+                    slot = players.put(new PlayerProfile(name));
+                    publish(slot);
+                    nameIndex.add(name);
+                }
+            } finally {
+                storeLock.writeLock().unlock();
+            }
+        }
+        recentPlayers.touch(name);
+        return slot;
+    }
+    
+    /**
+     * Update both players' statistics and ratings after a game
+     * In PvC games only player 1 is tracked; the computer is a fixed rating.
+     * Safe to call from any thread
+     */
+    public static void recordGame(GameMode gameMode, String player1Name, String player2Name,
+                                  GameOutcome outcome, int roundsPlayed) {
+        int player1 = getOrCreatePlayer(player1Name);
+        int player2 = gameMode == GameMode.PVP ? getOrCreatePlayer(player2Name) : -1;
+        
+        storeLock.readLock().lock();
+        try {
+            // Take both stripes in index order so two games between the same players cannot deadlock
+            int stripe1 = stripeIndex(player1Name);
+            int stripe2 = player2 >= 0 ? stripeIndex(player2Name) : stripe1;
+            synchronized (stripes[Math.min(stripe1, stripe2)]) {
+                synchronized (stripes[Math.max(stripe1, stripe2)]) {
+                    if (player1 != player2) {
+                        double score = RatingEngine.player1Score(outcome);
+                        double rating1 = players.getRating(player1);
+                        double rating2 = player2 >= 0 ? players.getRating(player2) : RatingEngine.COMPUTER_RATING;
+                        players.setRating(player1, RatingEngine.updatedRating(rating1, rating2, score),
+                            RatingEngine.FORMULA_VERSION);
+                        if (player2 >= 0) {
+                            players.setRating(player2, RatingEngine.updatedRating(rating2, rating1, 1.0 - score),
+                                RatingEngine.FORMULA_VERSION);
+                        }
+                    }
+                    
+                    long now = System.currentTimeMillis();
+                    players.recordGame(player1, gameMode, outcome == GameOutcome.PLAYER1_WIN, roundsPlayed, now);
+                    if (player2 >= 0 && player2 != player1) {
+                        players.recordGame(player2, gameMode, outcome == GameOutcome.PLAYER2_WIN, roundsPlayed, now);
+                        publish(player1, player2);
+                    } else {
+                        publish(player1);
+                    }
+                }
+            }
+        } finally {
+            storeLock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Replay every stored game to recompute all ratings (after a formula change)
+     * Independent groups of players are replayed in parallel. Only games still
+     * within history retention and recorded with round moves count (see
+     * RatingEngine.Recompute); players with none start at the initial rating
+     */
+    public static void recomputeRatings() {
+        RatingEngine.Recompute recompute = new RatingEngine.Recompute();
+        GameHistory.forEachGame(HistoryFilter.all(), recompute::addGame);
+        Map<String, Double> ratings = recompute.run();
+        
+        storeLock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < players.size(); slot++) {
+                players.setRating(slot, ratings.getOrDefault(players.getName(slot), RatingEngine.INITIAL_RATING),
+                    RatingEngine.FORMULA_VERSION);
+            }
+            leaderboard.rebuild(players.toProfiles());
             savePlayersToFile();
+        } finally {
+            storeLock.writeLock().unlock();
         }
-        return player;
     }
     
     /**
-     * Update player statistics after game
+     * Put the current rows of a game's players on the leaderboard (in one
+     * update, so snapshots never hold half a game) and queue them for saving
+     * Called with the players' stripes (or the store lock) held, so snapshots arrive in order
      */
-    public static void updatePlayerStats(String playerName, GameMode gameMode, boolean won, int roundsPlayed) {
-        PlayerProfile player = getOrCreatePlayer(playerName);
-        
-        player.gamesPlayed++;
-        player.roundsPlayed += roundsPlayed;
-        
-        if (won) {
-            player.gamesWon++;
+    private static void publish(int... slots) {
+        PlayerProfile[] profiles = new PlayerProfile[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            profiles[i] = players.toProfile(slots[i]);
         }
-        
-        if (gameMode == GameMode.PVC) {
-            player.pvcGames++;
-            if (won) player.pvcWins++;
-        } else {
-            player.pvpGames++;
-            if (won) player.pvpWins++;
+        leaderboard.update(profiles);
+        for (PlayerProfile profile : profiles) {
+            markDirty(profile);
         }
-        
-        player.lastPlayed = new Date();
-        savePlayersToFile();
+    }
+    
+    /**
+     * Replace the readers' leaderboard snapshot with the current ranking
+     * Takes no store lock, so games keep going while it is built; skipped if
+     * nothing changed since the last one
+     */
+    private static void publishSnapshot() {
+        synchronized (snapshotLock) {
+            if (leaderboard.getChanges() == snapshot.getVersion()) return;
+            snapshot = leaderboard.snapshot();
+        }
+    }
+    
+    private static int stripeIndex(String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1);
     }
     
     /**
@@ -254,43 +449,44 @@ public class PlayerManager {
     }
     
     /**
-     * Get leaderboard data
+     * Latest published leaderboard: consistent, never changes, safe on any thread
+     * Reflects games up to the last flush of player data
+     */
+    public static LeaderboardSnapshot getLeaderboardSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Get leaderboard data: all players by rating, then by games won
      */
     public static List<PlayerProfile> getLeaderboard() {
-        List<PlayerProfile> leaderboard = new ArrayList<>(players.values());
-        
-        // Sort by win rate, then by games won
-        leaderboard.sort((p1, p2) -> {
-            double winRate1 = p1.getWinRate();
-            double winRate2 = p2.getWinRate();
-            
-            if (Math.abs(winRate1 - winRate2) < 0.01) {
-                return Integer.compare(p2.gamesWon, p1.gamesWon);
-            }
-            
-            return Double.compare(winRate2, winRate1);
-        });
-        
-        return leaderboard;
+        LeaderboardSnapshot current = snapshot;
+        return current.top(current.size());
+    }
+    
+    /**
+     * Get the best players from the latest snapshot
+     */
+    public static List<PlayerProfile> getLeaderboard(int limit) {
+        return snapshot.top(limit);
+    }
+    
+    /**
+     * Get a player's leaderboard rank (1 = best), or 0 if the player is unknown
+     */
+    public static int getPlayerRank(String name) {
+        return snapshot.rankOf(name) + 1;
     }
     
     /**
      * Get recent player names for dropdown
      */
     private static String[] getRecentPlayerNames() {
-        List<PlayerProfile> recentPlayers = new ArrayList<>(players.values());
-        recentPlayers.sort((p1, p2) -> p2.lastPlayed.compareTo(p1.lastPlayed));
-        
-        if (recentPlayers.isEmpty()) {
+        List<String> names = recentPlayers.getNames();
+        if (names.isEmpty()) {
             return new String[]{"No recent players"};
         }
-        
-        String[] names = new String[Math.min(recentPlayers.size(), 10)];
-        for (int i = 0; i < names.length; i++) {
-            names[i] = recentPlayers.get(i).name;
-        }
-        
-        return names;
+        return names.toArray(new String[0]);
     }
     
     /**
@@ -308,34 +504,10 @@ public class PlayerManager {
         JLabel titleLabel = new JLabel("🏆 LEADERBOARD", JLabel.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 28));
         
-        // Create table
-        String[] columnNames = {"Rank", "Player", "Games", "Wins", "Win Rate", "PvC W/L", "PvP W/L", "Last Played"};
-        
-        List<PlayerProfile> leaderboard = getLeaderboard();
-        Object[][] data = new Object[leaderboard.size()][];
+        // Rows are read from the published snapshot only as they scroll into view
+        LeaderboardTableModel tableModel = new LeaderboardTableModel(PlayerManager::getLeaderboardSnapshot);
         
-        for (int i = 0; i < leaderboard.size(); i++) {
-            PlayerProfile player = leaderboard.get(i);
-            String rank = String.valueOf(i + 1);
-            
-            // Add medal emojis for top 3
-            if (i == 0) rank = "🥇 1";
-            else if (i == 1) rank = "🥈 2";
-            else if (i == 2) rank = "🥉 3";
-            
-            data[i] = new Object[]{
-                rank,
-                player.name,
-                player.gamesPlayed,
-                player.gamesWon,
-                String.format("%.1f%%", player.getWinRate()),
-                String.format("%d/%d", player.pvcWins, player.pvcGames - player.pvcWins),
-                String.format("%d/%d", player.pvpWins, player.pvpGames - player.pvpWins),
-                formatDate(player.lastPlayed)
-            };
-        }
-        
-        JTable table = new JTable(data, columnNames);
+        JTable table = new JTable(tableModel);
         table.setFont(new Font("Arial", Font.PLAIN, 12));
         table.setRowHeight(25);
         table.setSelectionBackground(new Color(59, 130, 246));
@@ -344,35 +516,66 @@ public class PlayerManager {
         // Set column widths
         table.getColumnModel().getColumn(0).setPreferredWidth(60);   // Rank
         table.getColumnModel().getColumn(1).setPreferredWidth(120);  // Player
-        table.getColumnModel().getColumn(2).setPreferredWidth(60);   // Games
-        table.getColumnModel().getColumn(3).setPreferredWidth(60);   // Wins
-        table.getColumnModel().getColumn(4).setPreferredWidth(80);   // Win Rate
-        table.getColumnModel().getColumn(5).setPreferredWidth(80);   // PvC
-        table.getColumnModel().getColumn(6).setPreferredWidth(80);   // PvP
-        table.getColumnModel().getColumn(7).setPreferredWidth(100);  // Last Played
+        table.getColumnModel().getColumn(2).setPreferredWidth(60);   // Rating
+        table.getColumnModel().getColumn(3).setPreferredWidth(60);   // Games
+        table.getColumnModel().getColumn(4).setPreferredWidth(60);   // Wins
+        table.getColumnModel().getColumn(5).setPreferredWidth(80);   // Win Rate
+        table.getColumnModel().getColumn(6).setPreferredWidth(80);   // PvC
+        table.getColumnModel().getColumn(7).setPreferredWidth(80);   // PvP
+        table.getColumnModel().getColumn(8).setPreferredWidth(100);  // Last Played
+        
+        // Clicking the Rank or Rating header flips between best first and worst first
+        table.getTableHeader().setToolTipText("Click Rank or Rating to reverse the order");
+        table.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column == 0 || column == 2) {
+                    tableModel.setAscending(!tableModel.isAscending());
+                }
+            }
+        });
         
         JScrollPane scrollPane = new JScrollPane(table);
         
         // Stats panel
         JPanel statsPanel = new JPanel(new FlowLayout());
-        JLabel statsLabel = new JLabel(String.format("Total Players: %d | Total Games: %d", 
-            players.size(), 
-            players.values().stream().mapToInt(p -> p.gamesPlayed).sum()));
+        JLabel statsLabel = new JLabel();
         statsPanel.add(statsLabel);
+        updateLeaderboardStats(statsLabel, tableModel.getSnapshot(), null);
+        
+        // Selecting another player shows the current player's record against them
+        table.getSelectionModel().addListSelectionListener(e -> {
+            int row = table.getSelectedRow();
+            updateLeaderboardStats(statsLabel, tableModel.getSnapshot(),
+                row >= 0 ? (String) tableModel.getValueAt(row, 1) : null);
+        });
         
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
         
+        // Refresh in place: picks up the latest published snapshot
         JButton refreshButton = new JButton("🔄 Refresh");
         refreshButton.addActionListener(e -> {
-            dialog.dispose();
-            showLeaderboard(parent);
+            tableModel.refresh();
+            updateLeaderboardStats(statsLabel, tableModel.getSnapshot(), null);
+        });
+        
+        // Jump to the current player's row without loading the rows in between
+        JButton findMeButton = new JButton("📍 My Rank");
+        findMeButton.addActionListener(e -> {
+            int row = tableModel.rowForRank(tableModel.getSnapshot().rankOf(currentPlayer1Name));
+            if (row >= 0) {
+                table.setRowSelectionInterval(row, row);
+                table.scrollRectToVisible(table.getCellRect(row, 0, true));
+            }
         });
         
         JButton closeButton = new JButton("✗ Close");
         closeButton.addActionListener(e -> dialog.dispose());
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(findMeButton);
         buttonPanel.add(closeButton);
         
         mainPanel.add(titleLabel, BorderLayout.NORTH);
@@ -384,10 +587,28 @@ public class PlayerManager {
         dialog.setVisible(true);
     }
     
+    /**
+     * Show player and game totals from the snapshot the table is showing
+     * @param selectedName player picked in the table, or null
+     */
+    private static void updateLeaderboardStats(JLabel statsLabel, LeaderboardSnapshot shown, String selectedName) {
+        String stats = String.format("Total Players: %d | Total Games: %d", 
+            shown.size(), 
+            shown.getTotalGames());
+        int rank = shown.rankOf(currentPlayer1Name) + 1;
+        if (rank > 0) {
+            stats += String.format(" | %s: #%d", currentPlayer1Name, rank);
+        }
+        if (selectedName != null && !selectedName.isEmpty() && !selectedName.equals(currentPlayer1Name)) {
+            stats += String.format(" | vs %s: %s", selectedName, HeadToHead.get(currentPlayer1Name, selectedName));
+        }
+        statsLabel.setText(stats);
+    }
+    
     /**
      * Format date for display
      */
-    private static String formatDate(Date date) {
+    static String formatDate(Date date) {
         if (date == null) return "Never";
         
         long diff = new Date().getTime() - date.getTime();
@@ -402,31 +623,154 @@ public class PlayerManager {
     }
     
     /**
-     * Save players to file
+     * Queue a snapshot for the next flush, replacing any older unsaved one
+     * The flush runs after a short delay, or right away once many players changed
+     */
+    private static void markDirty(PlayerProfile profile) {
+        dirty.put(profile.name, profile);
+        if (dirty.size() >= Constants.PLAYER_FLUSH_THRESHOLD) {
+            flusher.execute(PlayerManager::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            flusher.schedule(PlayerManager::flush, Constants.PLAYER_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Append every queued snapshot to the player log in one write
+     */
+    public static void flush() {
+        flushScheduled.set(false);
+        synchronized (playerLog) {
+            if (dirty.isEmpty()) return;
+            
+            List<PlayerProfile> batch = new ArrayList<>(dirty.size());
+            List<byte[]> records = new ArrayList<>(dirty.size());
+            for (Map.Entry<String, PlayerProfile> entry : dirty.entrySet()) {
+                // Only drop the entry if no newer snapshot replaced it meanwhile
+                if (dirty.remove(entry.getKey(), entry.getValue())) {
+                    batch.add(entry.getValue());
+                    records.add(entry.getValue().toBytes());
+                }
+            }
+            try {
+                playerLog.appendAll(records);
+            } catch (IOException e) {
+                System.err.println("Error saving players: " + e.getMessage());
+                // Queue the batch again for a later flush, unless a newer snapshot already is
+                for (PlayerProfile profile : batch) {
+                    dirty.putIfAbsent(profile.name, profile);
+                }
+                if (flushScheduled.compareAndSet(false, true)) {
+                    flusher.schedule(PlayerManager::flush, Constants.PLAYER_FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        publishSnapshot();
+        compactIfNeeded();
+    }
+    
+    /**
+     * Compact once superseded records clearly outnumber live players
+     */
+    private static void compactIfNeeded() {
+        if (playerLog.getRecordCount() <= players.size() * 2 + 64) return;
+        
+        storeLock.writeLock().lock();
+        try {
+            if (playerLog.getRecordCount() > players.size() * 2 + 64) {
+                savePlayersToFile();
+            }
+        } finally {
+            storeLock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Save players to file (rewrites the log with one record per player)
+     * Takes the store lock so no game update can slip in between
      */
     private static void savePlayersToFile() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(PLAYERS_FILE))) {
-            oos.writeObject(players);
+        storeLock.writeLock().lock();
+        try {
+            List<byte[]> records = new ArrayList<>();
+            for (int slot = 0; slot < players.size(); slot++) {
+                records.add(players.toProfile(slot).toBytes());
+            }
+            synchronized (playerLog) {
+                playerLog.rewrite(records);
+                dirty.clear(); // All included in the rewrite
+            }
         } catch (IOException e) {
             System.err.println("Error saving players: " + e.getMessage());
+        } finally {
+            storeLock.writeLock().unlock();
         }
+        publishSnapshot();
     }
     
     /**
      * Load players from file
      */
-    @SuppressWarnings("unchecked")
     private static void loadPlayersFromFile() {
+        players.clear();
+        
+        if (!playerLog.getFile().exists()) {
+            migrateLegacyFile();
+            return;
+        }
+        
+        boolean[] legacyRecords = {false};
+        try {
+            // Later records for the same player replace earlier ones
+            playerLog.replay(payload -> {
+                PlayerProfile player = decodePlayer(payload);
+                if (player != null) {
+                    players.put(player);
+                    legacyRecords[0] |= PlayerProfile.isSerializedRecord(payload);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error loading players: " + e.getMessage());
+        }
+        
+        // Rewrite records from the old serialized format in the binary one
+        if (legacyRecords[0]) {
+            savePlayersToFile();
+        }
+    }
+    
+    /**
+     * Convert the old serialized map in players.dat into the player log
+     */
+    @SuppressWarnings("unchecked")
+    private static void migrateLegacyFile() {
         File file = new File(PLAYERS_FILE);
         if (!file.exists()) {
             return;
         }
         
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            players = (Map<String, PlayerProfile>) ois.readObject();
+            for (PlayerProfile player : ((Map<String, PlayerProfile>) ois.readObject()).values()) {
+                players.put(player);
+            }
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Error loading players: " + e.getMessage());
-            players = new HashMap<>();
+            players.clear();
+            return;
+        }
+        
+        savePlayersToFile();
+        if (!file.renameTo(new File(PLAYERS_FILE + ".bak"))) {
+            System.err.println("Could not rename migrated players file: " + file.getName());
+        }
+    }
+    
+    private static PlayerProfile decodePlayer(byte[] payload) {
+        try {
+            return PlayerProfile.fromBytes(payload);
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable player record: " + e.getMessage());
+            return null;
         }
     }
     
@@ -434,16 +778,28 @@ public class PlayerManager {
      * Clear all player data
      */
     public static void clearAllPlayers() {
-        players.clear();
-        savePlayersToFile();
+        storeLock.writeLock().lock();
+        try {
+            players.clear();
+            leaderboard.clear();
+            recentPlayers.clear();
+            nameIndex.clear();
+            savePlayersToFile();
+            HeadToHead.clear();
+        } finally {
+            storeLock.writeLock().unlock();
+        }
     }
 }
 
 /**
  * Player Profile class
+ * Stored as a compact binary record; Serializable only to read old files
  */
 class PlayerProfile implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final byte RECORD_FORMAT = 2; // 2: adds rating and rating formula version
+    private static final int FIXED_RECORD_SIZE = 1 + 2 + 7 * 4 + 8 + 8 + 1; // format, name length, counters, date, rating
     
     String name;
     int gamesPlayed = 0;
@@ -454,6 +810,8 @@ class PlayerProfile implements Serializable {
     int pvpGames = 0;
     int pvpWins = 0;
     Date lastPlayed = new Date();
+    double rating = RatingEngine.INITIAL_RATING;
+    int ratingVersion = RatingEngine.FORMULA_VERSION; // 0 for profiles stored before ratings
     
     public PlayerProfile(String name) {
         this.name = name;
@@ -473,4 +831,70 @@ class PlayerProfile implements Serializable {
         if (pvpGames == 0) return 0.0;
         return (double) pvpWins / pvpGames * 100.0;
     }
+    
+    /**
+     * Encode as [format][name length][name UTF-8][7 counters][last played millis][rating][formula version]
+     */
+    byte[] toBytes() {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_RECORD_SIZE + nameBytes.length);
+        buffer.put(RECORD_FORMAT);
+        buffer.putShort((short) nameBytes.length);
+        buffer.put(nameBytes);
+        buffer.putInt(gamesPlayed).putInt(gamesWon).putInt(roundsPlayed);
+        buffer.putInt(pvcGames).putInt(pvcWins).putInt(pvpGames).putInt(pvpWins);
+        buffer.putLong(lastPlayed.getTime());
+        buffer.putDouble(rating);
+        buffer.put((byte) ratingVersion);
+        return buffer.array();
+    }
+    
+    /**
+     * Decode a record written by toBytes, or by Java serialization in older logs
+     */
+    static PlayerProfile fromBytes(byte[] payload) throws IOException {
+        if (isSerializedRecord(payload)) {
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+                return (PlayerProfile) ois.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+        }
+        
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            byte format = buffer.get();
+            if (format < 1 || format > RECORD_FORMAT) {
+                throw new IOException("Unknown player record format " + format);
+            }
+            byte[] nameBytes = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(nameBytes);
+            
+            PlayerProfile player = new PlayerProfile(new String(nameBytes, StandardCharsets.UTF_8));
+            player.gamesPlayed = buffer.getInt();
+            player.gamesWon = buffer.getInt();
+            player.roundsPlayed = buffer.getInt();
+            player.pvcGames = buffer.getInt();
+            player.pvcWins = buffer.getInt();
+            player.pvpGames = buffer.getInt();
+            player.pvpWins = buffer.getInt();
+            player.lastPlayed = new Date(buffer.getLong());
+            if (format >= 2) {
+                player.rating = buffer.getDouble();
+                player.ratingVersion = buffer.get();
+            } else {
+                player.ratingVersion = 0;
+            }
+            return player;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated player record");
+        }
+    }
+    
+    /**
+     * Check for the Java serialization stream magic (0xACED)
+     */
+    static boolean isSerializedRecord(byte[] payload) {
+        return payload.length >= 2 && payload[0] == (byte) 0xAC && payload[1] == (byte) 0xED;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+import java.util.*;
+
+/**
+ * Player Name Index - Case-insensitive prefix lookup over player names
+ * Names are kept in a sorted set under a lower-case key, so every name
+ * starting with a prefix is one contiguous range found in O(log n)
+ */
+class PlayerNameIndex {
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final TreeSet<String> keys = new TreeSet<>();
+
+    public synchronized void add(String name) {
+        keys.add(key(name));
+    }
+
+    public synchronized void rebuild(Collection<String> names) {
+        keys.clear();
+        for (String name : names) {
+            add(name);
+        }
+    }
+
+    public synchronized void clear() {
+        keys.clear();
+    }
+
+    /**
+     * Up to limit names starting with the prefix (ignoring case), in alphabetical order
+     */
+    public synchronized List<String> findByPrefix(String prefix, int limit) {
+        List<String> matches = new ArrayList<>(limit);
+        String lower = prefix.toLowerCase(Locale.ROOT);
+
+        for (String key : keys.subSet(lower, true, lower + Character.MAX_VALUE, false)) {
+            if (matches.size() >= limit) break;
+            matches.add(key.substring(key.indexOf(KEY_SEPARATOR) + 1));
+        }
+        return matches;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + name;
+    }
+}
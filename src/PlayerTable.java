@@ -0,0 +1,192 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Player Table - Live player statistics stored column by column
+ * Each player is a slot: a row index into parallel primitive arrays, one per
+ * field, found through a name-to-slot map. A game updates a few array cells
+ * instead of a heap object, and whole-table questions (such as whether any
+ * rating is stale) are plain scans over one column.
+ * Not synchronized: PlayerManager guards each slot with the player's stripe
+ * lock and only adds or removes players while holding its store lock
+ */
+class PlayerTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    private String[] names;
+    private int[] gamesPlayed;
+    private int[] gamesWon;
+    private int[] roundsPlayed;
+    private int[] pvcGames;
+    private int[] pvcWins;
+    private int[] pvpGames;
+    private int[] pvpWins;
+    private long[] lastPlayed;
+    private double[] ratings;
+    private byte[] ratingVersions;
+
+    public PlayerTable() {
+        clear();
+    }
+
+    /**
+     * Slot of a player, or -1 if the player is unknown
+     */
+    public int slotOf(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Store a profile, replacing the player's current row or adding a new one
+     * @return the player's slot
+     */
+    public int put(PlayerProfile profile) {
+        int slot = slotOf(profile.name);
+        if (slot < 0) {
+            if (size == names.length) {
+                grow();
+            }
+            slot = size;
+        }
+
+        names[slot] = profile.name;
+        gamesPlayed[slot] = profile.gamesPlayed;
+        gamesWon[slot] = profile.gamesWon;
+        roundsPlayed[slot] = profile.roundsPlayed;
+        pvcGames[slot] = profile.pvcGames;
+        pvcWins[slot] = profile.pvcWins;
+        pvpGames[slot] = profile.pvpGames;
+        pvpWins[slot] = profile.pvpWins;
+        lastPlayed[slot] = profile.lastPlayed.getTime();
+        ratings[slot] = profile.rating;
+        ratingVersions[slot] = (byte) profile.ratingVersion;
+
+        // Publish the slot only once its row is filled in
+        if (slot == size) {
+            size = slot + 1;
+            slots.put(profile.name, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Count a finished game for one player
+     */
+    public void recordGame(int slot, GameMode gameMode, boolean won, int rounds, long playedAt) {
+        gamesPlayed[slot]++;
+        roundsPlayed[slot] += rounds;
+        if (won) {
+            gamesWon[slot]++;
+        }
+
+        if (gameMode == GameMode.PVC) {
+            pvcGames[slot]++;
+            if (won) pvcWins[slot]++;
+        } else {
+            pvpGames[slot]++;
+            if (won) pvpWins[slot]++;
+        }
+        lastPlayed[slot] = playedAt;
+    }
+
+    public double getRating(int slot) {
+        return ratings[slot];
+    }
+
+    public void setRating(int slot, double rating, int ratingVersion) {
+        ratings[slot] = rating;
+        ratingVersions[slot] = (byte) ratingVersion;
+    }
+
+    /**
+     * Whether any stored rating comes from another formula version
+     */
+    public boolean hasStaleRatings(int formulaVersion) {
+        int count = size;
+        for (int slot = 0; slot < count; slot++) {
+            if (ratingVersions[slot] != formulaVersion) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copy of one row as a standalone profile
+     */
+    public PlayerProfile toProfile(int slot) {
+        PlayerProfile profile = new PlayerProfile(names[slot]);
+        profile.gamesPlayed = gamesPlayed[slot];
+        profile.gamesWon = gamesWon[slot];
+        profile.roundsPlayed = roundsPlayed[slot];
+        profile.pvcGames = pvcGames[slot];
+        profile.pvcWins = pvcWins[slot];
+        profile.pvpGames = pvpGames[slot];
+        profile.pvpWins = pvpWins[slot];
+        profile.lastPlayed = new Date(lastPlayed[slot]);
+        profile.rating = ratings[slot];
+        profile.ratingVersion = ratingVersions[slot];
+        return profile;
+    }
+
+    /**
+     * Copies of every row
+     */
+    public List<PlayerProfile> toProfiles() {
+        int count = size;
+        List<PlayerProfile> profiles = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            profiles.add(toProfile(slot));
+        }
+        return profiles;
+    }
+
+    public List<String> getNames() {
+        return Arrays.asList(Arrays.copyOf(names, size));
+    }
+
+    public void clear() {
+        slots.clear();
+        size = 0;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        gamesPlayed = Arrays.copyOf(gamesPlayed, capacity);
+        gamesWon = Arrays.copyOf(gamesWon, capacity);
+        roundsPlayed = Arrays.copyOf(roundsPlayed, capacity);
+        pvcGames = Arrays.copyOf(pvcGames, capacity);
+        pvcWins = Arrays.copyOf(pvcWins, capacity);
+        pvpGames = Arrays.copyOf(pvpGames, capacity);
+        pvpWins = Arrays.copyOf(pvpWins, capacity);
+        lastPlayed = Arrays.copyOf(lastPlayed, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        ratingVersions = Arrays.copyOf(ratingVersions, capacity);
+    }
+
+    private void allocate(int capacity) {
+        names = new String[capacity];
+        gamesPlayed = new int[capacity];
+        gamesWon = new int[capacity];
+        roundsPlayed = new int[capacity];
+        pvcGames = new int[capacity];
+        pvcWins = new int[capacity];
+        pvpGames = new int[capacity];
+        pvpWins = new int[capacity];
+        lastPlayed = new long[capacity];
+        ratings = new double[capacity];
+        ratingVersions = new byte[capacity];
+    }
+}
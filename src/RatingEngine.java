@@ -0,0 +1,157 @@
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Rating Engine - Elo ratings for players
+ * Ratings move after every game by how surprising the result was, so one
+ * lucky win barely counts while steady wins against strong opponents do.
+ * The computer is a fixed anchor rating and is never rated itself
+ */
+class RatingEngine {
+    public static final double INITIAL_RATING = 1500.0;
+    public static final double COMPUTER_RATING = 1500.0;
+    public static final double K_FACTOR = 32.0;
+
+    /** Bump when the formula changes; stored ratings from another version are recomputed */
+    public static final int FORMULA_VERSION = 1;
+
+    // Names given to a side GameRecord could not name (games from the old winner-text format)
+    private static final Set<String> PLACEHOLDER_NAMES = new HashSet<>(Arrays.asList("You", "Player 1", "Player 2"));
+
+    /**
+     * Expected score (0-1) of a player against an opponent
+     */
+    public static double expectedScore(double rating, double opponentRating) {
+        return 1.0 / (1.0 + Math.pow(10.0, (opponentRating - rating) / 400.0));
+    }
+
+    /**
+     * New rating after a game
+     * @param score 1 for a win, 0.5 for a tie, 0 for a loss
+     */
+    public static double updatedRating(double rating, double opponentRating, double score) {
+        return rating + K_FACTOR * (score - expectedScore(rating, opponentRating));
+    }
+
+    /**
+     * Player 1's score for a game outcome
+     */
+    public static double player1Score(GameOutcome outcome) {
+        switch (outcome) {
+            case PLAYER1_WIN: return 1.0;
+            case PLAYER2_WIN: return 0.0;
+            default: return 0.5;
+        }
+    }
+
+    /**
+     * Full recompute over a game history, fed in chronological order
+     * Players only affect each other through games they played together, so
+     * the history is split into connected groups of players (union-find over
+     * PvP games) and each group is replayed in parallel.
+     * Legacy games (no round moves stored) and games with a placeholder name
+     * on a rated side are left out: old records only named the winner, so
+     * replaying them would keep a player's wins and drop their losses
+     */
+    static class Recompute {
+        private final Map<String, Integer> playerIds = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private int[] parents = new int[256];
+
+        // Games as parallel arrays: player ids (-1 = computer) and player 1's score * 2
+        private int[] player1Ids = new int[1024];
+        private int[] player2Ids = new int[1024];
+        private byte[] doubledScores = new byte[1024];
+        private int gameCount;
+
+        /**
+         * Add the next game (games must arrive oldest first)
+         */
+        public void addGame(GameRecord game) {
+            if (game.getRoundMoves().getRoundCount() == 0) return; // Legacy record
+            if (PLACEHOLDER_NAMES.contains(game.getPlayer1Name())) return;
+            if (game.getGameMode() == GameMode.PVP && PLACEHOLDER_NAMES.contains(game.getPlayer2Name())) return;
+
+            int player1 = playerId(game.getPlayer1Name());
+            int player2 = game.getGameMode() == GameMode.PVC ? -1 : playerId(game.getPlayer2Name());
+            if (player1 == player2) return; // Same name on both sides, nothing to rate
+
+            if (gameCount == player1Ids.length) {
+                player1Ids = Arrays.copyOf(player1Ids, gameCount * 2);
+                player2Ids = Arrays.copyOf(player2Ids, gameCount * 2);
+                doubledScores = Arrays.copyOf(doubledScores, gameCount * 2);
+            }
+            player1Ids[gameCount] = player1;
+            player2Ids[gameCount] = player2;
+            doubledScores[gameCount] = (byte) (player1Score(game.getOutcome()) * 2);
+            gameCount++;
+
+            if (player2 >= 0) {
+                union(player1, player2);
+            }
+        }
+
+        /**
+         * Replay every group and return the final rating of each player
+         */
+        public Map<String, Double> run() {
+            // Each group gets the indexes of its games, still in chronological order
+            Map<Integer, List<Integer>> groups = new HashMap<>();
+            for (int game = 0; game < gameCount; game++) {
+                groups.computeIfAbsent(find(player1Ids[game]), root -> new ArrayList<>()).add(game);
+            }
+
+            return groups.values().parallelStream()
+                .map(this::replay)
+                .flatMap(ratings -> ratings.entrySet().stream())
+                .collect(Collectors.toMap(entry -> names.get(entry.getKey()), Map.Entry::getValue));
+        }
+
+        private Map<Integer, Double> replay(List<Integer> games) {
+            Map<Integer, Double> ratings = new HashMap<>();
+            for (int game : games) {
+                int player1 = player1Ids[game];
+                int player2 = player2Ids[game];
+                double score = doubledScores[game] / 2.0;
+
+                double rating1 = ratings.getOrDefault(player1, INITIAL_RATING);
+                double rating2 = player2 < 0 ? COMPUTER_RATING : ratings.getOrDefault(player2, INITIAL_RATING);
+                ratings.put(player1, updatedRating(rating1, rating2, score));
+                if (player2 >= 0) {
+                    ratings.put(player2, updatedRating(rating2, rating1, 1.0 - score));
+                }
+            }
+            return ratings;
+        }
+
+        private int playerId(String name) {
+            Integer id = playerIds.get(name);
+            if (id != null) return id;
+
+            id = names.size();
+            playerIds.put(name, id);
+            names.add(name);
+            if (id == parents.length) {
+                parents = Arrays.copyOf(parents, id * 2);
+            }
+            parents[id] = id;
+            return id;
+        }
+
+        private int find(int id) {
+            while (parents[id] != id) {
+                parents[id] = parents[parents[id]]; // Path halving
+                id = parents[id];
+            }
+            return id;
+        }
+
+        private void union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA != rootB) {
+                parents[rootB] = rootA;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.*;
+
+/**
+ * Recent Players - The most recently active player names, most recent first
+ * An access-ordered LinkedHashMap capped at a fixed size, updated whenever a
+ * player starts or finishes a game, so reading it never sorts the profiles
+ */
+class RecentPlayers {
+    private final int capacity;
+    private final LinkedHashMap<String, Boolean> names;
+
+    public RecentPlayers(int capacity) {
+        this.capacity = capacity;
+        this.names = new LinkedHashMap<String, Boolean>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RecentPlayers.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Fill from stored profiles: keeps the most recent ones with a bounded heap, O(n log capacity)
+     */
+    public synchronized void rebuild(Collection<PlayerProfile> players) {
+        PriorityQueue<PlayerProfile> newest = new PriorityQueue<>(capacity + 1,
+            Comparator.comparing((PlayerProfile player) -> player.lastPlayed));
+        for (PlayerProfile player : players) {
+            newest.add(player);
+            if (newest.size() > capacity) {
+                newest.poll(); // Drop the oldest
+            }
+        }
+
+        names.clear();
+        while (!newest.isEmpty()) {
+            names.put(newest.poll().name, Boolean.TRUE); // Oldest first, so the newest ends up last
+        }
+    }
+
+    /**
+     * Mark a player as just active
+     */
+    public synchronized void touch(String name) {
+        names.put(name, Boolean.TRUE);
+    }
+
+    public synchronized void clear() {
+        names.clear();
+    }
+
+    /**
+     * Names from most to least recent
+     */
+    public synchronized List<String> getNames() {
+        List<String> result = new ArrayList<>(names.keySet());
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -0,0 +1,257 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Record Log - Append-only binary file of checksummed records
+ * Each record is [length][crc32][payload]. A crash can only leave a torn
+ * record at the end, which is cut off the next time the log is replayed.
+ * Compaction writes a fresh file next to the log and renames it into place
+ */
+class RecordLog {
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final File file;
+    private int recordCount;
+
+    public RecordLog(File file) {
+        this.file = file;
+    }
+
+    public File getFile() { return file; }
+
+    /**
+     * Number of records in the log after the last replay, append or rewrite
+     */
+    public int getRecordCount() { return recordCount; }
+
+    /**
+     * Read every valid record in order, truncating a torn or corrupt tail
+     * @return number of valid records
+     */
+    public int replay(Consumer<byte[]> consumer) throws IOException {
+        recordCount = 0;
+        if (!file.exists()) return 0;
+
+        long validEnd = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024))) {
+            long fileLength = file.length();
+            CRC32 crc = new CRC32();
+
+            while (validEnd + HEADER_SIZE <= fileLength) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD_SIZE || validEnd + HEADER_SIZE + length > fileLength) {
+                    break; // Torn header or record cut short
+                }
+
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload, 0, length);
+                if ((int) crc.getValue() != checksum) {
+                    break; // Partially written record
+                }
+
+                consumer.accept(payload);
+                validEnd += HEADER_SIZE + length;
+                recordCount++;
+            }
+        }
+
+        if (validEnd < file.length()) {
+            System.err.println("Recovering " + file.getName() + ": dropping " + (file.length() - validEnd) + " torn bytes");
+            truncate(validEnd);
+        }
+        return recordCount;
+    }
+
+    /**
+     * Append one record and force it to disk
+     */
+    public void append(byte[] payload) throws IOException {
+        appendAll(java.util.Collections.singletonList(payload));
+    }
+
+    /**
+     * Append several records with a single write and sync
+     */
+    public void appendAll(Iterable<byte[]> payloads) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        int added = 0;
+        for (byte[] payload : payloads) {
+            writeRecord(out, payload);
+            added++;
+        }
+        if (added == 0) return;
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        recordCount += added;
+    }
+
+    /**
+     * Replace the whole log with the given records (compaction)
+     */
+    public void rewrite(Iterable<byte[]> payloads) throws IOException {
+        int[] count = {0};
+        replaceAtomically(file, out -> {
+            DataOutputStream data = new DataOutputStream(out);
+            for (byte[] payload : payloads) {
+                writeRecord(data, payload);
+                count[0]++;
+            }
+            data.flush();
+        });
+        recordCount = count[0];
+    }
+
+    private static void writeRecord(DataOutputStream out, byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        out.writeInt(payload.length);
+        out.writeInt((int) crc.getValue());
+        out.write(payload);
+    }
+
+    private void truncate(long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes the content of a file
+     */
+    interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Write a file through a temporary sibling and rename it over the target,
+     * so readers see either the old or the new content, never a partial file
+     */
+    public static void replaceAtomically(File target, ContentWriter writer) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File temp = new File(parent, target.getName() + ".tmp");
+
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            writer.write(buffered);
+            buffered.flush();
+            out.getFD().sync();
+        }
+
+        try {
+            Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
+
+/**
+ * Checksummed text lines for append-only CSV files
+ * A sealed line is "payload|crc32" with the checksum as 8 hex digits
+ */
+class ChecksummedLines {
+    private static final int SUFFIX_LENGTH = 9; // '|' plus 8 hex digits
+
+    /**
+     * Add a checksum to a line
+     */
+    public static String seal(String payload) {
+        return payload + "|" + String.format("%08x", checksum(payload));
+    }
+
+    /**
+     * Get the payload of a sealed line, the line itself if it was written
+     * before checksums existed, or null if the checksum does not match
+     */
+    public static String unseal(String line) {
+        if (!isSealed(line)) return line;
+
+        String payload = line.substring(0, line.length() - SUFFIX_LENGTH);
+        long expected = Long.parseLong(line.substring(line.length() - 8), 16);
+        return checksum(payload) == expected ? payload : null;
+    }
+
+    /**
+     * Cut a torn or corrupt last line off an append-only text file
+     */
+    public static void recoverTail(File file) {
+        if (!file.exists()) return;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long length = raf.length();
+            long validEnd = length;
+
+            while (validEnd > 0) {
+                // Find the start of the last line ending at validEnd
+                long lineEnd = validEnd;
+                boolean complete = readByte(raf, lineEnd - 1) == '\n';
+                long scan = complete ? lineEnd - 1 : lineEnd;
+                long lineStart = scan;
+                while (lineStart > 0 && readByte(raf, lineStart - 1) != '\n') {
+                    lineStart--;
+                }
+
+                byte[] bytes = new byte[(int) (scan - lineStart)];
+                raf.seek(lineStart);
+                raf.readFully(bytes);
+                String line = new String(bytes, StandardCharsets.UTF_8);
+
+                if (complete && (line.isEmpty() || unseal(line) != null)) {
+                    break; // Last line is intact
+                }
+                validEnd = lineStart;
+            }
+
+            if (validEnd < length) {
+                System.err.println("Recovering " + file.getName() + ": dropping " + (length - validEnd) + " torn bytes");
+                raf.setLength(validEnd);
+                raf.getFD().sync();
+            }
+        } catch (IOException e) {
+            System.err.println("Error recovering " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static boolean isSealed(String line) {
+        int length = line.length();
+        if (length < SUFFIX_LENGTH || line.charAt(length - SUFFIX_LENGTH) != '|') return false;
+        for (int i = length - 8; i < length; i++) {
+            if (Character.digit(line.charAt(i), 16) < 0) return false;
+        }
+        return true;
+    }
+
+    private static int readByte(RandomAccessFile raf, long position) throws IOException {
+        raf.seek(position);
+        return raf.read();
+    }
+
+    private static long checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
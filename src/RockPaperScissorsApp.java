@@ -20,10 +20,6 @@ public class RockPaperScissorsApp extends JFrame {
         createMenuBar();
         initializePanels();
         showMainPage();
-        
-        // Initialize enhanced systems
-        EnhancedSoundManager.initialize();
-        PlayerManager.initialize();
     }
     
     /**
@@ -251,10 +247,11 @@ public class RockPaperScissorsApp extends JFrame {
      * Main method - entry point of the application
      */
     public static void main(String[] args) {
-        // Initialize game systems
+        // Initialize game systems, once each; audio loads in the background
+        SoundManager.initialize();
+        EnhancedSoundManager.initialize();
         GameHistory.initialize();
         PlayerManager.initialize();
-        EnhancedSoundManager.initialize();
         
         // Create and show the application
         SwingUtilities.invokeLater(() -> {
@@ -2,13 +2,23 @@ import javax.sound.sampled.*;
 import java.io.*;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Sound Manager - Handles all audio effects in the game
- * Provides easy sound loading and playing capabilities
+ * Provides easy sound loading and playing capabilities.
+ * Sounds are decoded once into the audio engine's format; every play is a
+ * new engine voice, so a sound started again while still playing overlaps
+ * itself instead of cutting off, and playing never opens a line.
+ * Files are decoded in parallel in the background, each behind a readiness
+ * future; a sound played before its file is ready plays a short beep instead
+ * of waiting for the decode
  */
 public class SoundManager {
-    private static Map<String, Clip> soundClips = new HashMap<>();
+    // Decodes by file, so sounds sharing a file share one decode
+    private static final Map<String, CompletableFuture<short[]>> fileLoads = new ConcurrentHashMap<>();
+    private static final Map<String, short[]> fallbackBeeps = new ConcurrentHashMap<>();
     private static boolean soundEnabled = true;
     
     // Sound file mappings
@@ -24,30 +34,42 @@ public class SoundManager {
     }};
     
     /**
-     * Initialize sound system and preload common sounds
+     * Initialize sound system: start decoding every sound in the background
+     * Returns immediately; see whenReady() to wait for a sound
      */
     public static void initialize() {
-        // Preload frequently used sounds
-        loadSound("countdown");
-        loadSound("select");
-        loadSound("win");
-        loadSound("lose");
-        loadSound("draw");
+        for (String soundName : SOUND_FILES.keySet()) {
+            whenReady(soundName);
+        }
+    }
+    
+    /**
+     * Readiness of a sound, starting its decode if needed
+     * Completes with the decoded samples, or with null if the file cannot be
+     * read or no file is mapped to the name
+     */
+    public static CompletableFuture<short[]> whenReady(String soundName) {
+        String filename = SOUND_FILES.get(soundName);
+        if (filename == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return fileLoads.computeIfAbsent(filename,
+            file -> AudioEngine.loadInBackground(() -> loadSound(soundName, file)));
+    }
+    
+    /**
+     * Check if a sound is decoded and can be played without a fallback
+     */
+    public static boolean isReady(String soundName) {
+        return whenReady(soundName).getNow(null) != null;
     }
     
     /**
      * Load a sound file into memory
+     * @return null if the file cannot be read
      */
-    private static void loadSound(String soundName) {
-        if (!soundEnabled) return;
-        
+    private static short[] loadSound(String soundName, String filename) {
         try {
-            String filename = SOUND_FILES.get(soundName);
-            if (filename == null) {
-                System.out.println("Sound file mapping not found: " + soundName);
-                return;
-            }
-            
             // Try to load from file system first
             File soundFile = new File(filename);
             AudioInputStream audioInputStream;
@@ -58,120 +80,73 @@ public class SoundManager {
                 // Try to load from resources (when running from JAR)
                 InputStream resourceStream = SoundManager.class.getResourceAsStream("/" + filename);
                 if (resourceStream == null) {
-                    // Create a simple beep sound as fallback
-                    createBeepSound(soundName);
-                    return;
+                    return null; // Played as a simple beep instead
                 }
                 audioInputStream = AudioSystem.getAudioInputStream(resourceStream);
             }
             
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
-            soundClips.put(soundName, clip);
-            
-            audioInputStream.close();
+            // Decode once; every play shares the samples
+            try (AudioInputStream stream = audioInputStream) {
+                return AudioEngine.decode(stream);
+            }
             
         } catch (Exception e) {
             System.out.println("Could not load sound: " + soundName + " - " + e.getMessage());
-            // Create fallback beep sound
-            createBeepSound(soundName);
+            return null;
         }
     }
     
     /**
      * Create a simple beep sound as fallback when audio files are not available
+     * (or not decoded yet)
      */
-    private static void createBeepSound(String soundName) {
-        try {
+    private static short[] createBeepSound(String soundName) {
+        return fallbackBeeps.computeIfAbsent(soundName, name -> {
             // Create a simple tone
-            int sampleRate = 16000;
+            int sampleRate = (int) AudioEngine.SAMPLE_RATE;
             int duration = 200; // milliseconds
             
-            if (soundName.equals("countdown")) duration = 100;
-            else if (soundName.equals("win")) duration = 500;
-            else if (soundName.equals("lose")) duration = 300;
+            if (name.equals("countdown")) duration = 100;
+            else if (name.equals("win")) duration = 500;
+            else if (name.equals("lose")) duration = 300;
             
-            byte[] buffer = new byte[sampleRate * duration / 1000];
+            short[] buffer = new short[sampleRate * duration / 1000];
             
             for (int i = 0; i < buffer.length; i++) {
                 double angle = 2.0 * Math.PI * i * 800 / sampleRate; // 800 Hz tone
-                buffer[i] = (byte) (Math.sin(angle) * 127);
+                buffer[i] = (short) (Math.sin(angle) * Short.MAX_VALUE);
             }
-            
-            AudioFormat format = new AudioFormat(sampleRate, 8, 1, true, false);
-            InputStream inputStream = new ByteArrayInputStream(buffer);
-            AudioInputStream audioInputStream = new AudioInputStream(inputStream, format, buffer.length);
-            
-            Clip clip = AudioSystem.getClip();
-            clip.open(audioInputStream);
-            soundClips.put(soundName, clip);
-            
-        } catch (Exception e) {
-            System.out.println("Could not create fallback sound: " + soundName);
-        }
+            return buffer;
+        });
     }
     
     /**
      * Play a sound by name
      */
     public static void playSound(String soundName) {
-        if (!soundEnabled) return;
-        
-        // Load sound if not already loaded
-        if (!soundClips.containsKey(soundName)) {
-            loadSound(soundName);
-        }
-        
-        Clip clip = soundClips.get(soundName);
-        if (clip != null) {
-            try {
-                // Stop the clip if it's already playing
-                if (clip.isRunning()) {
-                    clip.stop();
-                }
-                
-                // Rewind to beginning
-                clip.setFramePosition(0);
-                
-                // Play the sound
-                clip.start();
-                
-            } catch (Exception e) {
-                System.out.println("Error playing sound: " + soundName + " - " + e.getMessage());
-            }
-        }
+        playSound(soundName, 1.0f);
     }
     
     /**
      * Play sound with volume control (0.0 to 1.0)
      */
     public static void playSound(String soundName, float volume) {
-        if (!soundEnabled) return;
-        
-        if (!soundClips.containsKey(soundName)) {
-            loadSound(soundName);
+        short[] samples = getSamples(soundName);
+        if (samples != null) {
+            AudioEngine.play(samples, volume);
         }
+    }
+    
+    /**
+     * Decoded samples of a sound, or its fallback beep while it is still
+     * decoding (or if it could not be loaded); never waits for a decode
+     * @return null if sound is off or no file is mapped to the name
+     */
+    private static short[] getSamples(String soundName) {
+        if (!soundEnabled || !SOUND_FILES.containsKey(soundName)) return null;
         
-        Clip clip = soundClips.get(soundName);
-        if (clip != null) {
-            try {
-                // Set volume
-                FloatControl volumeControl = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-                float dB = (float) (Math.log(volume) / Math.log(10.0) * 20.0);
-                volumeControl.setValue(dB);
-                
-                // Stop and play
-                if (clip.isRunning()) {
-                    clip.stop();
-                }
-                clip.setFramePosition(0);
-                clip.start();
-                
-            } catch (Exception e) {
-                // Fallback to normal play if volume control fails
-                playSound(soundName);
-            }
-        }
+        short[] samples = whenReady(soundName).getNow(null);
+        return samples != null ? samples : createBeepSound(soundName);
     }
     
     /**
@@ -197,35 +172,24 @@ public class SoundManager {
      * Stop all currently playing sounds
      */
     public static void stopAllSounds() {
-        for (Clip clip : soundClips.values()) {
-            if (clip != null && clip.isRunning()) {
-                clip.stop();
-            }
-        }
+        AudioEngine.stopAll();
     }
     
     /**
      * Clean up resources
      */
     public static void cleanup() {
-        stopAllSounds();
-        for (Clip clip : soundClips.values()) {
-            if (clip != null) {
-                clip.close();
-            }
-        }
-        soundClips.clear();
+        AudioEngine.shutdown();
+        fileLoads.clear();
+        fallbackBeeps.clear();
     }
     
     /**
-     * Preload all sounds for better performance
+     * Preload all sounds for better performance, waiting until every one is decoded
      */
     public static void preloadAllSounds() {
-        for (String soundName : SOUND_FILES.keySet()) {
-            if (!soundClips.containsKey(soundName)) {
-                loadSound(soundName);
-            }
-        }
+        initialize();
+        CompletableFuture.allOf(fileLoads.values().toArray(new CompletableFuture<?>[0])).join();
     }
     
     /**
@@ -252,17 +216,10 @@ public class SoundManager {
      * Play a sequence of sounds with delays
      */
     public static void playSoundSequence(String[] soundNames, int delayMs) {
-        Thread soundThread = new Thread(() -> {
-            for (String soundName : soundNames) {
-                playSound(soundName);
-                try {
-                    Thread.sleep(delayMs);
-                } catch (InterruptedException e) {
-                    break;
-                }
-            }
-        });
-        soundThread.setDaemon(true);
-        soundThread.start();
+        // Scheduled on the mixer clock rather than slept through on a thread
+        long start = AudioEngine.now();
+        for (int i = 0; i < soundNames.length; i++) {
+            AudioEngine.play(getSamples(soundNames[i]), 1.0f, start + AudioEngine.framesFor((long) i * delayMs));
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+import java.util.*;
+
+/**
+ * Head To Head Test - Totals must survive a compaction and a reload
+ * After a compaction the log lists pairs in table order, so players get
+ * different ids on reload; every rivalry is checked from both sides
+ * Build it with the app and run it from an empty directory (it writes
+ * head_to_head.log there and clears it at the end):
+ *   javac -d out src/*.java test/*.java
+ *   java -cp out HeadToHeadTest
+ */
+public class HeadToHeadTest {
+    private static final int PLAYERS = 40;
+
+    public static void main(String[] args) {
+        HeadToHead.initialize();
+        HeadToHead.clear();
+
+        // Player i beats player i + 1 (i % 3 + 1) times, loses once and ties once
+        int games = 0;
+        for (int i = 0; i + 1 < PLAYERS; i++) {
+            for (int win = 0; win < i % 3 + 1; win++) {
+                HeadToHead.recordGame(name(i), name(i + 1), GameOutcome.PLAYER1_WIN);
+                games++;
+            }
+            HeadToHead.recordGame(name(i + 1), name(i), GameOutcome.PLAYER1_WIN);
+            HeadToHead.recordGame(name(i), name(i + 1), GameOutcome.TIE);
+            games += 2;
+        }
+
+        RecordLog log = new RecordLog(new java.io.File("head_to_head.log"));
+        int records;
+        try {
+            records = log.replay(payload -> { });
+        } catch (java.io.IOException e) {
+            throw new AssertionError("Cannot read head_to_head.log", e);
+        }
+        check(records < games, "log was never compacted (" + records + " records for " + games + " games)");
+
+        HeadToHead.initialize();
+        for (int i = 0; i + 1 < PLAYERS; i++) {
+            HeadToHead.Rivalry forward = HeadToHead.get(name(i), name(i + 1));
+            HeadToHead.Rivalry backward = HeadToHead.get(name(i + 1), name(i));
+            check(forward.getWins() == i % 3 + 1 && forward.getLosses() == 1 && forward.getTies() == 1,
+                name(i) + " vs " + name(i + 1) + " is " + forward);
+            check(backward.getWins() == 1 && backward.getLosses() == i % 3 + 1 && backward.getTies() == 1,
+                name(i + 1) + " vs " + name(i) + " is " + backward);
+        }
+
+        HeadToHead.clear();
+        System.out.println("HeadToHeadTest passed");
+    }
+
+    private static String name(int i) {
+        return "Player" + i;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}